@@ -0,0 +1,197 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.dotmatrix;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * MatrixFont that is loaded from a font in the Glyph Bitmap Distribution
+ * Format (BDF). All glyphs will be converted to row bitmasks in a cell of the
+ * size of the font bounding box (max. 32 columns) when the font is loaded.
+ * Each glyph keeps its own advance width (DWIDTH), so the font can be used
+ * with variable width by DotMatrix.drawString().
+ */
+public class BdfMatrixFont implements MatrixFont {
+    private static final int                   MAX_WIDTH   = 32;
+    private static final int                   ASCII_RANGE = 256;
+    private final        int                   characterWidth;
+    private final        int                   characterHeight;
+    private final        int[][]               asciiGlyphs;
+    private final        int[]                 asciiWidths;
+    private final        Map<Integer, int[]>   glyphs;
+    private final        Map<Integer, Integer> widths;
+    private              int[]                 defaultGlyph;
+    private              int                   defaultWidth;
+
+
+    // ******************** Constructors **************************************
+    public BdfMatrixFont(final InputStream STREAM) throws IOException {
+        asciiGlyphs = new int[ASCII_RANGE][];
+        asciiWidths = new int[ASCII_RANGE];
+        glyphs      = new HashMap<>();
+        widths      = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(STREAM, StandardCharsets.US_ASCII));
+        int    fontWidth   = 0;
+        int    fontHeight  = 0;
+        int    fontOffsetX = 0;
+        int    fontOffsetY = 0;
+        int    defaultChar = ' ';
+        int    encoding    = -1;
+        int    advance     = -1;
+        int    bbxWidth    = 0;
+        int    bbxHeight   = 0;
+        int    bbxOffsetX  = 0;
+        int    bbxOffsetY  = 0;
+        int[]  rows        = null;
+        int    row         = -1;
+        String line;
+        while (null != (line = reader.readLine())) {
+            line = line.trim();
+            if (row >= 0) {
+                if (line.startsWith("ENDCHAR")) {
+                    if (encoding >= 0) { putGlyph(encoding, rows, advance < 0 ? fontWidth : advance); }
+                    row = -1;
+                } else if (row < bbxHeight && !line.isEmpty()) {
+                    long bits;
+                    try {
+                        bits = Long.parseLong(line, 16);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid bitmap row " + line + " for encoding " + encoding);
+                    }
+                    int  noOfBits = line.length() * 4;
+                    int  cellRow  = (fontHeight + fontOffsetY) - (bbxOffsetY + bbxHeight) + row;
+                    if (cellRow >= 0 && cellRow < fontHeight) {
+                        for (int c = 0 ; c < bbxWidth ; c++) {
+                            if (((bits >> (noOfBits - 1 - c)) & 1) == 0) { continue; }
+                            // Columns are relative to the origin of the glyph, the advance starts at column 0
+                            int x = bbxOffsetX + c;
+                            if (x < 0 || x >= fontWidth) { continue; }
+                            rows[cellRow] |= 1 << (fontWidth - 1 - x);
+                        }
+                    }
+                    row++;
+                }
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            switch(parts[0]) {
+                case "FONTBOUNDINGBOX":
+                    fontWidth   = Integer.parseInt(parts[1]);
+                    fontHeight  = Integer.parseInt(parts[2]);
+                    fontOffsetX = Integer.parseInt(parts[3]);
+                    fontOffsetY = Integer.parseInt(parts[4]);
+                    if (fontWidth < 1 || fontWidth > MAX_WIDTH || fontHeight < 1) { throw new IOException("Unsupported font bounding box " + fontWidth + "x" + fontHeight); }
+                    break;
+                case "DEFAULT_CHAR":
+                    defaultChar = Integer.parseInt(parts[1]);
+                    break;
+                case "STARTCHAR":
+                    encoding   = -1;
+                    advance    = -1;
+                    bbxWidth   = fontWidth;
+                    bbxHeight  = fontHeight;
+                    bbxOffsetX = fontOffsetX;
+                    bbxOffsetY = fontOffsetY;
+                    break;
+                case "ENCODING":
+                    encoding = Integer.parseInt(parts[1]);
+                    break;
+                case "DWIDTH":
+                    advance = Math.min(MAX_WIDTH, Integer.parseInt(parts[1]));
+                    break;
+                case "BBX":
+                    bbxWidth   = Integer.parseInt(parts[1]);
+                    bbxHeight  = Integer.parseInt(parts[2]);
+                    bbxOffsetX = Integer.parseInt(parts[3]);
+                    bbxOffsetY = Integer.parseInt(parts[4]);
+                    break;
+                case "BITMAP":
+                    if (0 == fontHeight) { throw new IOException("FONTBOUNDINGBOX missing"); }
+                    rows = new int[fontHeight];
+                    row  = 0;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (0 == fontHeight) { throw new IOException("No BDF font"); }
+
+        characterWidth  = fontWidth;
+        characterHeight = fontHeight;
+        defaultGlyph    = getGlyph(defaultChar);
+        defaultWidth    = getWidth(defaultChar);
+        if (null == defaultGlyph) {
+            defaultGlyph = new int[characterHeight];
+            defaultWidth = characterWidth;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public static BdfMatrixFont load(final String FILE_NAME) throws IOException {
+        try (InputStream stream = new FileInputStream(FILE_NAME)) {
+            return new BdfMatrixFont(stream);
+        }
+    }
+
+    @Override public int getCharacterWidth() { return characterWidth; }
+
+    @Override public int getCharacterHeight() { return characterHeight; }
+
+    @Override public int[] getCharacter(final char CHAR) { return getCharacter((int) CHAR); }
+
+    @Override public int[] getCharacter(final int CODE_POINT) {
+        int[] glyph = getGlyph(CODE_POINT);
+        return null == glyph ? defaultGlyph : glyph;
+    }
+
+    @Override public int getCharacterWidth(final int CODE_POINT) { return null == getGlyph(CODE_POINT) ? defaultWidth : getWidth(CODE_POINT); }
+
+    public boolean hasCharacter(final int CODE_POINT) { return null != getGlyph(CODE_POINT); }
+
+    private int[] getGlyph(final int CODE_POINT) {
+        if (CODE_POINT >= 0 && CODE_POINT < ASCII_RANGE) { return asciiGlyphs[CODE_POINT]; }
+        return glyphs.get(CODE_POINT);
+    }
+
+    private int getWidth(final int CODE_POINT) {
+        if (CODE_POINT >= 0 && CODE_POINT < ASCII_RANGE) { return asciiWidths[CODE_POINT]; }
+        Integer width = widths.get(CODE_POINT);
+        return null == width ? 0 : width;
+    }
+
+    private void putGlyph(final int CODE_POINT, final int[] ROWS, final int WIDTH) {
+        if (CODE_POINT < ASCII_RANGE) {
+            asciiGlyphs[CODE_POINT] = ROWS;
+            asciiWidths[CODE_POINT] = WIDTH;
+        } else {
+            glyphs.put(CODE_POINT, ROWS);
+            widths.put(CODE_POINT, WIDTH);
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package eu.hansolo.fx.dotmatrix;
 
+import javafx.application.Platform;
 import javafx.beans.DefaultProperty;
 import javafx.beans.InvalidationListener;
 import javafx.collections.ObservableList;
@@ -25,12 +26,18 @@ import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -41,12 +48,16 @@ import java.util.concurrent.CopyOnWriteArrayList;
 @DefaultProperty("children")
 public class DotMatrix extends Region {
     public  enum DotShape { ROUND, SQUARE, ROUNDED_RECT }
+    public  enum RenderMode { SHAPES, SPRITES }
     public  static final double                                       DEFAULT_SPACER_SIZE_FACTOR = 0.05;
     private static final int                                          RED_MASK                   = 255 << 16;
     private static final int                                          GREEN_MASK                 = 255 << 8;
     private static final int                                          BLUE_MASK                  = 255;
     private static final int                                          ALPHA_MASK                 = 255 << 24;
     private static final double                                       ALPHA_FACTOR               = 1.0 / 255.0;
+    private static final int                                          SPRITE_SAMPLES             = 4;
+    private static final double                                       FULL_REPAINT_RATIO         = 0.5;
+    private static final int                                          MAX_SPRITES                = 256;
     private              double                                       preferredWidth;
     private              double                                       preferredHeight;
     private              double                                       width;
@@ -57,9 +68,28 @@ public class DotMatrix extends Region {
     private              int                                          dotOnColor;
     private              int                                          dotOffColor;
     private              DotShape                                     dotShape;
+    private              RenderMode                                   renderMode;
+    private              WritableImage                                frame;
+    private              int[]                                        framePixels;
+    private              int                                          frameWidth;
+    private              int                                          frameHeight;
+    private              Map<Integer, int[]>                          sprites;
+    private              int                                          spriteWidth;
+    private              int                                          spriteHeight;
+    private              DotShape                                     spriteShape;
+    private              double                                       spriteSpacer;
+    private              int                                          lastSpriteColor;
+    private              int[]                                        lastSprite;
     private              int                                          cols;
     private              int                                          rows;
     private              int[][]                                      matrix;
+    private              byte[]                                       indexedMatrix;
+    private              Color[]                                      palette;
+    private              int[]                                        paletteValues;
+    private              int                                          lastPaletteValue;
+    private              int                                          lastPaletteIndex;
+    private              int[]                                        dirtyFromX;
+    private              int[]                                        dirtyToX;
     private              MatrixFont                                   matrixFont;
     private              int                                          characterWidth;
     private              int                                          characterHeight;
@@ -74,8 +104,21 @@ public class DotMatrix extends Region {
     private              double                                       dotSizeMinusDoubleSpacer;
     private              double                                       dotWidthMinusDoubleSpacer;
     private              double                                       dotHeightMinusDoubleSpacer;
+    private              int[]                                        marquee;
+    private              int                                          marqueeWidth;
+    private              int                                          marqueeHeight;
+    private              int                                          marqueeY;
+    private              int                                          marqueeOffset;
+    private              DotMatrixBuffer                              backBuffer;
+    private              DotMatrixBuffer                              lastCommittedBuffer;
+    private final        AtomicReference<DotMatrixBuffer>             pendingBuffer              = new AtomicReference<>();
+    private final        AtomicReference<DotMatrixBuffer>             spareBuffer                = new AtomicReference<>();
+    private final        Object                                       bufferLock                 = new Object();
     private              InvalidationListener                         sizeListener;
     private              EventHandler<MouseEvent>                     clickHandler;
+    private              EventHandler<MouseEvent>                     moveHandler;
+    private              int                                          lastPointerX;
+    private              int                                          lastPointerY;
     private              CopyOnWriteArrayList<DotMatrixEventListener> listeners;
 
 
@@ -95,9 +138,15 @@ public class DotMatrix extends Region {
         dotOnColor             = convertToInt(DOT_ON_COLOR);
         dotOffColor            = convertToInt(DOT_OFF_COLOR);
         dotShape               = DOT_SHAPE;
+        renderMode             = RenderMode.SHAPES;
+        sprites                = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<Integer, int[]> ELDEST) { return size() > MAX_SPRITES; }
+        };
         cols                   = COLS;
         rows                   = ROWS;
         matrix                 = new int[cols][rows];
+        dirtyFromX             = new int[rows];
+        dirtyToX               = new int[rows];
         matrixFont             = FONT;
         characterWidth         = matrixFont.getCharacterWidth();
         characterHeight        = matrixFont.getCharacterHeight();
@@ -107,6 +156,9 @@ public class DotMatrix extends Region {
         spacerSizeFactor       = DEFAULT_SPACER_SIZE_FACTOR;
         sizeListener           = o -> resize();
         clickHandler           = e -> checkForClick(e);
+        moveHandler            = e -> checkForMove(e);
+        lastPointerX           = -1;
+        lastPointerY           = -1;
         listeners              = new CopyOnWriteArrayList<>();
         initGraphics();
         registerListeners();
@@ -116,11 +168,16 @@ public class DotMatrix extends Region {
     // ******************** Initialization ************************************
     private void initGraphics() {
         // prefill matrix with dotOffColor
-        for (int y = 0 ; y < rows ; y++) {
-            for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y] = dotOffColor;
+        if (null == indexedMatrix) {
+            for (int y = 0 ; y < rows ; y++) {
+                for (int x = 0 ; x < cols ; x++) {
+                    matrix[x][y] = dotOffColor;
+                }
             }
+        } else {
+            Arrays.fill(indexedMatrix, (byte) getPaletteIndex(dotOffColor));
         }
+        clearDirtyDots();
 
         if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 ||
             Double.compare(getWidth(), 0.0) <= 0 || Double.compare(getHeight(), 0.0) <= 0) {
@@ -143,6 +200,9 @@ public class DotMatrix extends Region {
         widthProperty().addListener(sizeListener);
         heightProperty().addListener(sizeListener);
         canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        canvas.addEventHandler(MouseEvent.MOUSE_MOVED, moveHandler);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, moveHandler);
+        canvas.addEventHandler(MouseEvent.MOUSE_EXITED, moveHandler);
     }
 
 
@@ -150,9 +210,15 @@ public class DotMatrix extends Region {
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
     public void setColsAndRows(final int COLS, final int ROWS) {
-        cols   = COLS;
-        rows   = ROWS;
-        matrix = new int[cols][rows];
+        cols       = COLS;
+        rows       = ROWS;
+        if (null == indexedMatrix) {
+            matrix = new int[cols][rows];
+        } else {
+            indexedMatrix = new byte[cols * rows];
+        }
+        dirtyFromX = new int[rows];
+        dirtyToX   = new int[rows];
         initGraphics();
         resize();
     }
@@ -160,7 +226,7 @@ public class DotMatrix extends Region {
     public Color getDotOnColor() { return convertToColor(dotOnColor); }
     public void setDotOnColor(final Color COLOR) {
         dotOnColor = convertToInt(COLOR);
-        drawMatrix();
+        drawChangedDots();
     }
 
     public Color getDotOffColor() { return convertToColor(dotOffColor); }
@@ -168,10 +234,10 @@ public class DotMatrix extends Region {
         dotOffColor = convertToInt(COLOR);
         for (int y = 0 ; y < rows ; y++) {
             for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y] = dotOffColor;
+                setPixel(x, y, dotOffColor);
             }
         }
-        drawMatrix();
+        drawChangedDots();
     }
 
     public DotShape getDotShape() { return dotShape; }
@@ -180,13 +246,27 @@ public class DotMatrix extends Region {
         drawMatrix();
     }
 
+    public RenderMode getRenderMode() { return renderMode; }
+    /**
+     * Defines how the dots will be drawn. SHAPES fills one shape per dot,
+     * SPRITES renders one sprite per color at the current dot size and
+     * composes the matrix in an image by copying the sprite pixels, which
+     * is much faster for large matrices.
+     * @param MODE
+     */
+    public void setRenderMode(final RenderMode MODE) {
+        renderMode = null == MODE ? RenderMode.SHAPES : MODE;
+        frame      = null;
+        drawMatrix();
+    }
+
     public MatrixFont getMatrixFont() { return matrixFont; }
     public void setMatrixFont(final MatrixFont FONT) {
         matrixFont             = FONT;
         characterWidth         = matrixFont.getCharacterWidth();
         characterHeight        = matrixFont.getCharacterHeight();
         characterWidthMinusOne = characterWidth - 1;
-        drawMatrix();
+        drawChangedDots();
     }
 
     public boolean isUsingSpacer() { return useSpacer; }
@@ -214,16 +294,161 @@ public class DotMatrix extends Region {
     public void setPixel(final int X, final int Y, final int COLOR_VALUE) {
         if (X >= cols || X < 0) return;
         if (Y >= rows || Y < 0) return;
+        if (null != indexedMatrix) {
+            setPixelIndex(X, Y, getPaletteIndex(COLOR_VALUE));
+            return;
+        }
+        if (matrix[X][Y] == COLOR_VALUE) return;
         matrix[X][Y] = COLOR_VALUE;
+        markDirty(X, Y);
+    }
+
+    /**
+     * Sets the dot at the given position to the palette color with the
+     * given index, only available in palette mode (see setPalette())
+     * @param X
+     * @param Y
+     * @param INDEX
+     */
+    public void setPixelIndex(final int X, final int Y, final int INDEX) {
+        if (null == indexedMatrix) { throw new IllegalStateException("Palette mode not enabled"); }
+        if (X >= cols || X < 0) return;
+        if (Y >= rows || Y < 0) return;
+        if (INDEX < 0 || INDEX >= palette.length) return;
+        int offset = Y * cols + X;
+        if ((indexedMatrix[offset] & 0xFF) == INDEX) return;
+        indexedMatrix[offset] = (byte) INDEX;
+        markDirty(X, Y);
+    }
+
+    public boolean isPaletteMode() { return null != indexedMatrix; }
+
+    /**
+     * Returns a copy of the current palette or null if palette mode is not enabled
+     * @return a copy of the current palette or null if palette mode is not enabled
+     */
+    public Color[] getPalette() { return null == palette ? null : palette.clone(); }
+    /**
+     * Enables the palette mode with the given colors (at most 256). In palette
+     * mode the dots are stored as palette indices in a row-major byte array
+     * and colors that are not part of the palette will be mapped to the
+     * nearest palette color. If palette mode is already enabled, only the
+     * colors will be replaced and the indices of the dots will be kept, which
+     * allows to switch color schemes without touching the dots.
+     * @param COLORS
+     */
+    public void setPalette(final Color... COLORS) {
+        if (null == COLORS || COLORS.length == 0 || COLORS.length > 256) { throw new IllegalArgumentException("Palette must contain 1 - 256 colors"); }
+        palette       = COLORS.clone();
+        paletteValues = new int[palette.length];
+        for (int i = 0 ; i < palette.length ; i++) { paletteValues[i] = convertToInt(palette[i]); }
+        lastPaletteIndex = -1;
+
+        if (null == indexedMatrix) {
+            indexedMatrix = new byte[cols * rows];
+            for (int y = 0 ; y < rows ; y++) {
+                for (int x = 0 ; x < cols ; x++) {
+                    indexedMatrix[y * cols + x] = (byte) getPaletteIndex(matrix[x][y]);
+                }
+            }
+            matrix = null;
+        } else {
+            for (int i = 0 ; i < indexedMatrix.length ; i++) {
+                if ((indexedMatrix[i] & 0xFF) >= palette.length) { indexedMatrix[i] = 0; }
+            }
+        }
+        drawMatrix();
+    }
+    /**
+     * Replaces the palette color with the given index, all dots using
+     * this index will change their color
+     * @param INDEX
+     * @param COLOR
+     */
+    public void setPaletteColor(final int INDEX, final Color COLOR) {
+        if (null == palette || INDEX < 0 || INDEX >= palette.length) { return; }
+        palette[INDEX]       = COLOR;
+        paletteValues[INDEX] = convertToInt(COLOR);
+        lastPaletteIndex     = -1;
+        drawMatrix();
+    }
+
+    /**
+     * Disables the palette mode and stores the colors of all dots in the
+     * int[cols][rows] matrix again
+     */
+    public void clearPalette() {
+        if (null == indexedMatrix) { return; }
+        matrix = new int[cols][rows];
+        for (int y = 0 ; y < rows ; y++) {
+            for (int x = 0 ; x < cols ; x++) {
+                matrix[x][y] = paletteValues[indexedMatrix[y * cols + x] & 0xFF];
+            }
+        }
+        indexedMatrix = null;
+        palette       = null;
+        paletteValues = null;
+        drawMatrix();
+    }
+
+    /**
+     * Returns the palette index of the dot at the given position, only
+     * available in palette mode (see setPalette())
+     * @param X
+     * @param Y
+     * @return the palette index of the dot at the given position
+     */
+    public int getPaletteIndexAt(final int X, final int Y) {
+        if (null == indexedMatrix) { throw new IllegalStateException("Palette mode not enabled"); }
+        return indexedMatrix[Y * cols + X] & 0xFF;
+    }
+
+    /**
+     * Returns the back buffer that can be filled on any thread. The back buffer
+     * belongs to the calling thread until commit() is called. It will contain the
+     * last committed frame (or all dots off for the first frame).
+     * @return the back buffer that can be filled on any thread
+     */
+    public DotMatrixBuffer getBackBuffer() {
+        synchronized (bufferLock) {
+            if (null == backBuffer || !backBuffer.fits(cols, rows)) {
+                backBuffer = new DotMatrixBuffer(cols, rows, dotOffColor);
+                if (null != lastCommittedBuffer && lastCommittedBuffer.fits(cols, rows)) { backBuffer.copyFrom(lastCommittedBuffer); }
+            }
+            return backBuffer;
+        }
+    }
+
+    /**
+     * Hands the back buffer over to the FX thread where it will be shown with the
+     * next pulse. If the previous frame has not been shown yet, it will be dropped
+     * and no additional update of the matrix will be scheduled.
+     * Afterwards getBackBuffer() returns a buffer that contains a copy of the
+     * committed frame.
+     */
+    public void commit() {
+        synchronized (bufferLock) {
+            if (null == backBuffer) { return; }
+            DotMatrixBuffer committed = backBuffer;
+            DotMatrixBuffer dropped   = pendingBuffer.getAndSet(committed);
+            if (null == dropped) { Platform.runLater(() -> applyPendingBuffer()); }
+            DotMatrixBuffer next      = null == dropped ? spareBuffer.getAndSet(null) : dropped;
+            if (null == next || !next.fits(committed.getCols(), committed.getRows())) {
+                next = new DotMatrixBuffer(committed.getCols(), committed.getRows(), dotOffColor);
+            }
+            next.copyFrom(committed);
+            backBuffer          = next;
+            lastCommittedBuffer = committed;
+        }
     }
 
     public void setPixelWithRedraw(final int X, final int Y, final boolean ON) {
         setPixel(X, Y, ON ? dotOnColor : dotOffColor);
-        drawMatrix();
+        drawChangedDots();
     }
     public void setPixelWithRedraw(final int X, final int Y, final int COLOR_VALUE) {
         setPixel(X, Y, COLOR_VALUE);
-        drawMatrix();
+        drawChangedDots();
     }
 
     public void setCharAt(final char CHAR, final int X, final int Y) {
@@ -236,7 +461,7 @@ public class DotMatrix extends Region {
                 setPixel(x + X, y + Y, getBitAt(characterWidthMinusOne - x, y, c) == 0 ? dotOffColor : COLOR_VALUE);
             }
         }
-        drawMatrix();
+        drawChangedDots();
     }
 
     public void setCharAtWithBackground(final char CHAR, final int X, final int Y) {
@@ -250,9 +475,115 @@ public class DotMatrix extends Region {
                 setPixel(x + X, y + Y, COLOR_VALUE);
             }
         }
-        drawMatrix();
+        drawChangedDots();
     }
 
+    public void drawString(final String TEXT, final int X, final int Y) { drawString(TEXT, X, Y, dotOnColor); }
+    /**
+     * Draws the given text with the current matrix font starting at X, Y using the
+     * advance width of each character (see MatrixFont.getCharacterWidth(int)). The
+     * dots of each glyph row will be set by iterating over the bits of the row mask
+     * and the matrix will be redrawn once at the end.
+     * @param TEXT
+     * @param X
+     * @param Y
+     * @param COLOR_VALUE
+     */
+    public void drawString(final String TEXT, final int X, final int Y, final int COLOR_VALUE) {
+        if (null == TEXT) { return; }
+        int x = X;
+        for (int i = 0 ; i < TEXT.length() && x < cols ; ) {
+            int   codePoint = TEXT.codePointAt(i);
+            int   advance   = Math.min(characterWidth, matrixFont.getCharacterWidth(codePoint));
+            int   mask      = advance == 32 ? -1 : ((1 << advance) - 1) << (characterWidth - advance);
+            int[] c         = matrixFont.getCharacter(codePoint);
+            for (int y = 0 ; y < characterHeight ; y++) {
+                int on  = c[y] & mask;
+                int off = ~c[y] & mask;
+                while (on != 0) {
+                    int bit = Integer.numberOfTrailingZeros(on);
+                    setPixel(x + characterWidthMinusOne - bit, Y + y, COLOR_VALUE);
+                    on &= on - 1;
+                }
+                while (off != 0) {
+                    int bit = Integer.numberOfTrailingZeros(off);
+                    setPixel(x + characterWidthMinusOne - bit, Y + y, dotOffColor);
+                    off &= off - 1;
+                }
+            }
+            x += advance;
+            i += Character.charCount(codePoint);
+        }
+        drawChangedDots();
+    }
+
+    public void setMarquee(final String TEXT, final int Y) { setMarquee(TEXT, Y, dotOnColor); }
+    /**
+     * Renders the given text once with the current matrix font into an off-screen
+     * bitmap that is followed by a gap of cols empty columns. Like drawString() the
+     * characters are laid out by code point using their advance width. The bitmap
+     * will be shown in the rows starting at Y and can be scrolled by scrollMarquee()
+     * or setMarqueeOffset() which only move the viewport on the bitmap and redraw
+     * the dots that changed.
+     * @param TEXT
+     * @param Y
+     * @param COLOR_VALUE
+     */
+    public void setMarquee(final String TEXT, final int Y, final int COLOR_VALUE) {
+        String text      = null == TEXT ? "" : TEXT;
+        int    textWidth = 0;
+        for (int i = 0 ; i < text.length() ; ) {
+            int codePoint = text.codePointAt(i);
+            textWidth += Math.min(characterWidth, matrixFont.getCharacterWidth(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        marqueeWidth  = textWidth + cols;
+        marqueeHeight = characterHeight;
+        marqueeY      = Y;
+        marqueeOffset = 0;
+        marquee       = new int[marqueeWidth * marqueeHeight];
+        Arrays.fill(marquee, dotOffColor);
+        int startX = 0;
+        for (int i = 0 ; i < text.length() ; ) {
+            int   codePoint = text.codePointAt(i);
+            int   advance   = Math.min(characterWidth, matrixFont.getCharacterWidth(codePoint));
+            int[] c         = matrixFont.getCharacter(codePoint);
+            for (int y = 0 ; y < characterHeight ; y++) {
+                for (int x = 0 ; x < advance ; x++) {
+                    if (getBitAt(characterWidthMinusOne - x, y, c) == 0) continue;
+                    marquee[y * marqueeWidth + startX + x] = COLOR_VALUE;
+                }
+            }
+            startX += advance;
+            i += Character.charCount(codePoint);
+        }
+        drawMarquee();
+    }
+
+    /**
+     * Removes the marquee, the dots that have been used by it keep their color
+     */
+    public void clearMarquee() { marquee = null; }
+
+    public int getMarqueeOffset() { return marqueeOffset; }
+    /**
+     * Moves the viewport of the marquee to the given column of its bitmap,
+     * the bitmap wraps around like a ring buffer
+     * @param OFFSET
+     */
+    public void setMarqueeOffset(final int OFFSET) {
+        if (null == marquee) { return; }
+        marqueeOffset = ((OFFSET % marqueeWidth) + marqueeWidth) % marqueeWidth;
+        drawMarquee();
+    }
+
+    /**
+     * Moves the viewport of the marquee by the given number of columns,
+     * positive values scroll the text to the left
+     * @param STEP
+     */
+    public void scrollMarquee(final int STEP) { setMarqueeOffset(marqueeOffset + STEP); }
+
     public double getDotSize() { return dotSize; }
     public double getDotWidth() { return dotWidth; }
     public double getDotHeight() { return dotHeight; }
@@ -267,7 +598,21 @@ public class DotMatrix extends Region {
     public int getCols() { return cols; }
     public int getRows() { return rows; }
 
-    public int[][] getMatrix() { return matrix; }
+    /**
+     * Returns the matrix of color values, in palette mode this will be a
+     * copy that is created from the palette indices
+     * @return the matrix of color values
+     */
+    public int[][] getMatrix() {
+        if (null == indexedMatrix) { return matrix; }
+        int[][] copy = new int[cols][rows];
+        for (int y = 0 ; y < rows ; y++) {
+            for (int x = 0 ; x < cols ; x++) {
+                copy[x][y] = getColorValueAt(x, y);
+            }
+        }
+        return copy;
+    }
 
     public static Color convertToColor(final int COLOR_VALUE) {
         return Color.rgb((COLOR_VALUE & RED_MASK) >> 16, (COLOR_VALUE & GREEN_MASK) >> 8, (COLOR_VALUE & BLUE_MASK), ALPHA_FACTOR * ((COLOR_VALUE & ALPHA_MASK) >>> 24));
@@ -287,54 +632,88 @@ public class DotMatrix extends Region {
     public static int getBitAt(final int X, final int Y, final int[] BYTE_ARRAY) { return (BYTE_ARRAY[Y] >> X) & 1; }
     public static boolean getBitAtBoolean(final int X, final int Y, final int[] BYTE_ARRAY) { return ((BYTE_ARRAY[Y] >> X) & 1) == 1; }
 
-    public int getColorValueAt(final int X, final int Y) { return matrix[X][Y]; }
+    public int getColorValueAt(final int X, final int Y) { return null == indexedMatrix ? matrix[X][Y] : paletteValues[indexedMatrix[Y * cols + X] & 0xFF]; }
 
-    public Color getColorAt(final int X, final int Y) { return convertToColor(matrix[X][Y]); }
+    public Color getColorAt(final int X, final int Y) { return null == indexedMatrix ? convertToColor(matrix[X][Y]) : palette[indexedMatrix[Y * cols + X] & 0xFF]; }
 
     public void shiftLeft() {
+        if (null != indexedMatrix) {
+            for (int y = 0 ; y < rows ; y++) {
+                int  offset = y * cols;
+                byte first  = indexedMatrix[offset];
+                System.arraycopy(indexedMatrix, offset + 1, indexedMatrix, offset, cols - 1);
+                indexedMatrix[offset + cols - 1] = first;
+            }
+            drawMatrix();
+            return;
+        }
         int[] firstColumn = new int[rows];
         for (int y = 0 ; y < rows ; y++) { firstColumn[y] = matrix[0][y]; }
         for (int y = 0 ; y < rows ; y++) {
             for (int x = 1 ; x < cols ; x++) {
-                matrix[x - 1][y] = matrix[x][y];
+                setPixel(x - 1, y, matrix[x][y]);
             }
         }
-        for (int y = 0 ; y < rows ; y++) { matrix[cols - 1][y] = firstColumn[y]; }
-        drawMatrix();
+        for (int y = 0 ; y < rows ; y++) { setPixel(cols - 1, y, firstColumn[y]); }
+        drawChangedDots();
     }
     public void shiftRight() {
+        if (null != indexedMatrix) {
+            for (int y = 0 ; y < rows ; y++) {
+                int  offset = y * cols;
+                byte last   = indexedMatrix[offset + cols - 1];
+                System.arraycopy(indexedMatrix, offset, indexedMatrix, offset + 1, cols - 1);
+                indexedMatrix[offset] = last;
+            }
+            drawMatrix();
+            return;
+        }
         int[] lastColumn = new int[rows];
         for (int y = 0 ; y < rows ; y++) { lastColumn[y] = matrix[cols - 1][y]; }
         for (int y = 0 ; y < rows ; y++) {
             for (int x = cols - 2 ; x >= 0 ; x--) {
-                matrix[x + 1][y] = matrix[x][y];
+                setPixel(x + 1, y, matrix[x][y]);
             }
         }
-        for (int y = 0 ; y < rows ; y++) { matrix[0][y] = lastColumn[y]; }
-        drawMatrix();
+        for (int y = 0 ; y < rows ; y++) { setPixel(0, y, lastColumn[y]); }
+        drawChangedDots();
     }
 
     public void shiftUp() {
+        if (null != indexedMatrix) {
+            byte[] firstRow = Arrays.copyOf(indexedMatrix, cols);
+            System.arraycopy(indexedMatrix, cols, indexedMatrix, 0, (rows - 1) * cols);
+            System.arraycopy(firstRow, 0, indexedMatrix, (rows - 1) * cols, cols);
+            drawMatrix();
+            return;
+        }
         int[] firstRow = new int[cols];
         for (int x = 0 ; x < cols ; x++) { firstRow[x] = matrix[x][0]; }
         for (int y = 1 ; y < rows ; y++) {
             for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y - 1] = matrix[x][y];
+                setPixel(x, y - 1, matrix[x][y]);
             }
         }
-        for (int x = 0 ; x < cols ; x++) { matrix[x][rows - 1] = firstRow[x]; }
-        drawMatrix();
+        for (int x = 0 ; x < cols ; x++) { setPixel(x, rows - 1, firstRow[x]); }
+        drawChangedDots();
     }
     public void shiftDown() {
+        if (null != indexedMatrix) {
+            byte[] lastRow = Arrays.copyOfRange(indexedMatrix, (rows - 1) * cols, rows * cols);
+            System.arraycopy(indexedMatrix, 0, indexedMatrix, cols, (rows - 1) * cols);
+            System.arraycopy(lastRow, 0, indexedMatrix, 0, cols);
+            drawMatrix();
+            return;
+        }
         int[] lastRow = new int[cols];
         for (int x = 0 ; x < cols ; x++) { lastRow[x] = matrix[x][rows - 1]; }
         for (int y = rows - 2 ; y >= 0 ; y--) {
             for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y + 1] = matrix[x][y];
+                setPixel(x, y + 1, matrix[x][y]);
             }
         }
-        for (int x = 0 ; x < cols ; x++) { matrix[x][0] = lastRow[x]; }
-        drawMatrix();
+        for (int x = 0 ; x < cols ; x++) { setPixel(x, 0, lastRow[x]); }
+        drawChangedDots();
     }
 
     public void setAllDotsOn() {
@@ -343,7 +722,7 @@ public class DotMatrix extends Region {
                 setPixel(x, y, true);
             }
         }
-        drawMatrix();
+        drawChangedDots();
     }
     public void setAllDotsOff() {
         for (int y = 0; y < rows; y++) {
@@ -351,7 +730,7 @@ public class DotMatrix extends Region {
                 setPixel(x, y, false);
             }
         }
-        drawMatrix();
+        drawChangedDots();
     }
 
     public static final double clamp(final double MIN, final double MAX, final double VALUE) {
@@ -360,39 +739,323 @@ public class DotMatrix extends Region {
         return VALUE;
     }
 
+    /**
+     * Repaints all dots
+     */
     public void drawMatrix() {
-        ctx.clearRect(0, 0, width, height);
+        if (RenderMode.SPRITES == renderMode) {
+            if (prepareSprites()) {
+                Arrays.fill(framePixels, 0);
+                for (int y = 0 ; y < rows ; y++) { writeDots(y, 0, cols - 1); }
+                drawFrame(0, 0, frameWidth, frameHeight);
+            }
+        } else {
+            ctx.clearRect(0, 0, width, height);
+            for (int y = 0 ; y < rows ; y++) { drawDots(y, 0, cols - 1); }
+        }
+        clearDirtyDots();
+    }
+
+    /**
+     * Repaints only the dots that have been changed by setPixel() since the
+     * last repaint. Dots that have been modified directly in the array
+     * returned by getMatrix() need a call to drawMatrix().
+     * Adjacent dirty rows will be repainted as one band and if most of the
+     * dots are dirty the whole matrix will be repainted.
+     */
+    public void drawChangedDots() {
+        if (RenderMode.SPRITES == renderMode) {
+            drawChangedSprites();
+            return;
+        }
+        long dirtyDots = 0;
+        for (int y = 0 ; y < rows ; y++) {
+            if (dirtyToX[y] >= 0) { dirtyDots += dirtyToX[y] - dirtyFromX[y] + 1; }
+        }
+        if (0 == dirtyDots) { return; }
+        if (dirtyDots >= (long) cols * rows * FULL_REPAINT_RATIO) {
+            drawMatrix();
+            return;
+        }
+        int y = 0;
+        while (y < rows) {
+            if (dirtyToX[y] < 0) {
+                y++;
+                continue;
+            }
+            int fromY = y;
+            int fromX = dirtyFromX[y];
+            int toX   = dirtyToX[y];
+            while (y + 1 < rows && dirtyToX[y + 1] >= 0) {
+                y++;
+                fromX = Math.min(fromX, dirtyFromX[y]);
+                toX   = Math.max(toX, dirtyToX[y]);
+            }
+            int toY = y;
+            // Clear whole pixels and repaint all dots that touch them, clipped to the cleared area
+            double minX = Math.floor(fromX * dotWidth);
+            double minY = Math.floor(fromY * dotHeight);
+            double maxX = Math.ceil((toX + 1) * dotWidth);
+            double maxY = Math.ceil((toY + 1) * dotHeight);
+            ctx.save();
+            ctx.beginPath();
+            ctx.rect(minX, minY, maxX - minX, maxY - minY);
+            ctx.clip();
+            ctx.clearRect(minX, minY, maxX - minX, maxY - minY);
+            for (int row = Math.max(0, fromY - 1) ; row <= Math.min(rows - 1, toY + 1) ; row++) {
+                drawDots(row, Math.max(0, fromX - 1), Math.min(cols - 1, toX + 1));
+            }
+            ctx.restore();
+            for (int row = fromY ; row <= toY ; row++) {
+                dirtyFromX[row] = Integer.MAX_VALUE;
+                dirtyToX[row]   = -1;
+            }
+            y++;
+        }
+    }
+
+    private void drawDots(final int Y, final int FROM_X, final int TO_X) {
         switch(dotShape) {
             case ROUNDED_RECT:
                 CtxBounds      bounds      = new CtxBounds(dotWidthMinusDoubleSpacer, dotHeightMinusDoubleSpacer);
                 CtxCornerRadii cornerRadii = new CtxCornerRadii(dotSize * 0.125);
-                for (int y = 0; y < rows; y++) {
-                    for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
-                        bounds.setX(x * dotWidth + spacer);
-                        bounds.setY(y * dotHeight + spacer);
-                        drawRoundedRect(ctx, bounds, cornerRadii);
-                        ctx.fill();
-                    }
+                for (int x = FROM_X; x <= TO_X; x++) {
+                    ctx.setFill(getColorAt(x, Y));
+                    bounds.setX(x * dotWidth + spacer);
+                    bounds.setY(Y * dotHeight + spacer);
+                    drawRoundedRect(ctx, bounds, cornerRadii);
+                    ctx.fill();
                 }
                 break;
             case ROUND:
-                for (int y = 0; y < rows; y++) {
-                    for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
-                        ctx.fillOval(x * dotWidth + spacer, y * dotHeight + spacer, dotWidthMinusDoubleSpacer, dotHeightMinusDoubleSpacer);
-                    }
+                for (int x = FROM_X; x <= TO_X; x++) {
+                    ctx.setFill(getColorAt(x, Y));
+                    ctx.fillOval(x * dotWidth + spacer, Y * dotHeight + spacer, dotWidthMinusDoubleSpacer, dotHeightMinusDoubleSpacer);
                 }
                 break;
             case SQUARE:
             default    :
-                for (int y = 0; y < rows; y++) {
-                    for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
-                        ctx.fillRect(x * dotWidth + spacer, y * dotHeight + spacer, dotWidthMinusDoubleSpacer, dotHeightMinusDoubleSpacer);
+                for (int x = FROM_X; x <= TO_X; x++) {
+                    ctx.setFill(getColorAt(x, Y));
+                    ctx.fillRect(x * dotWidth + spacer, Y * dotHeight + spacer, dotWidthMinusDoubleSpacer, dotHeightMinusDoubleSpacer);
+                }
+                break;
+        }
+    }
+
+    private void drawChangedSprites() {
+        if (!prepareSprites()) {
+            clearDirtyDots();
+            return;
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0 ; y < rows ; y++) {
+            if (dirtyToX[y] < 0) { continue; }
+            writeDots(y, dirtyFromX[y], dirtyToX[y]);
+            minX = Math.min(minX, (int) Math.round(dirtyFromX[y] * dotWidth));
+            maxX = Math.max(maxX, (int) Math.round((dirtyToX[y] + 1) * dotWidth));
+            minY = Math.min(minY, (int) Math.round(y * dotHeight));
+            maxY = Math.max(maxY, (int) Math.round((y + 1) * dotHeight));
+            dirtyFromX[y] = Integer.MAX_VALUE;
+            dirtyToX[y]   = -1;
+        }
+        if (maxX < 0) { return; }
+        maxX = Math.min(frameWidth, maxX);
+        maxY = Math.min(frameHeight, maxY);
+        drawFrame(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Makes sure the frame buffer fits the current size and that the cached
+     * sprites fit the current dot size, shape and spacer
+     * @return false if there is nothing to draw
+     */
+    private boolean prepareSprites() {
+        int w = (int) Math.ceil(cols * dotWidth);
+        int h = (int) Math.ceil(rows * dotHeight);
+        if (w <= 0 || h <= 0) { return false; }
+        if (null == frame || w != frameWidth || h != frameHeight) {
+            frameWidth  = w;
+            frameHeight = h;
+            frame       = new WritableImage(frameWidth, frameHeight);
+            framePixels = new int[frameWidth * frameHeight];
+        }
+        int sw = Math.max(1, (int) dotWidth);
+        int sh = Math.max(1, (int) dotHeight);
+        if (sw != spriteWidth || sh != spriteHeight || dotShape != spriteShape || Double.compare(spacer, spriteSpacer) != 0) {
+            spriteWidth  = sw;
+            spriteHeight = sh;
+            spriteShape  = dotShape;
+            spriteSpacer = spacer;
+            sprites.clear();
+            lastSprite   = null;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the sprites of the given dots into the frame buffer, each dot will be
+     * placed at the whole pixel that is nearest to its position
+     */
+    private void writeDots(final int Y, final int FROM_X, final int TO_X) {
+        int cy = (int) Math.round(Y * dotHeight);
+        int ch = Math.min(spriteHeight, frameHeight - cy);
+        for (int x = FROM_X ; x <= TO_X ; x++) {
+            int   cx     = (int) Math.round(x * dotWidth);
+            int   cw     = Math.min(spriteWidth, frameWidth - cx);
+            int[] sprite = getSprite(getColorValueAt(x, Y));
+            for (int row = 0 ; row < ch ; row++) {
+                System.arraycopy(sprite, row * spriteWidth, framePixels, (cy + row) * frameWidth + cx, cw);
+            }
+        }
+    }
+
+    private void drawFrame(final int X, final int Y, final int WIDTH, final int HEIGHT) {
+        if (WIDTH <= 0 || HEIGHT <= 0) { return; }
+        frame.getPixelWriter().setPixels(X, Y, WIDTH, HEIGHT, PixelFormat.getIntArgbInstance(), framePixels, Y * frameWidth + X, frameWidth);
+        ctx.clearRect(X, Y, WIDTH, HEIGHT);
+        ctx.drawImage(frame, X, Y, WIDTH, HEIGHT, X, Y, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Returns the cached sprite for the given color, only the MAX_SPRITES
+     * most recently used sprites will be kept
+     */
+    private int[] getSprite(final int COLOR_VALUE) {
+        if (null != lastSprite && COLOR_VALUE == lastSpriteColor) { return lastSprite; }
+        int[] sprite = sprites.get(COLOR_VALUE);
+        if (null == sprite) {
+            sprite = createSprite(COLOR_VALUE);
+            sprites.put(COLOR_VALUE, sprite);
+        }
+        lastSpriteColor = COLOR_VALUE;
+        lastSprite      = sprite;
+        return sprite;
+    }
+
+    /**
+     * Renders the current dot shape in the given color, the coverage of each
+     * pixel will be estimated by SPRITE_SAMPLES x SPRITE_SAMPLES samples
+     */
+    private int[] createSprite(final int COLOR_VALUE) {
+        int[]  sprite  = new int[spriteWidth * spriteHeight];
+        int    rgb     = COLOR_VALUE & (RED_MASK | GREEN_MASK | BLUE_MASK);
+        double alpha   = (COLOR_VALUE & ALPHA_MASK) >>> 24;
+        double left    = spacer;
+        double top     = spacer;
+        double right   = spacer + dotWidthMinusDoubleSpacer;
+        double bottom  = spacer + dotHeightMinusDoubleSpacer;
+        double centerX = (left + right) * 0.5;
+        double centerY = (top + bottom) * 0.5;
+        double radiusX = dotWidthMinusDoubleSpacer * 0.5;
+        double radiusY = dotHeightMinusDoubleSpacer * 0.5;
+        double radius  = Math.min(dotSize * 0.125, Math.min(radiusX, radiusY));
+        double step    = 1.0 / SPRITE_SAMPLES;
+        double samples = SPRITE_SAMPLES * SPRITE_SAMPLES;
+        for (int py = 0 ; py < spriteHeight ; py++) {
+            for (int px = 0 ; px < spriteWidth ; px++) {
+                int hits = 0;
+                for (int j = 0 ; j < SPRITE_SAMPLES ; j++) {
+                    double sy = py + (j + 0.5) * step;
+                    for (int i = 0 ; i < SPRITE_SAMPLES ; i++) {
+                        double sx = px + (i + 0.5) * step;
+                        if (sx < left || sx > right || sy < top || sy > bottom) { continue; }
+                        switch(spriteShape) {
+                            case ROUND:
+                                double ex = (sx - centerX) / radiusX;
+                                double ey = (sy - centerY) / radiusY;
+                                if (ex * ex + ey * ey <= 1) { hits++; }
+                                break;
+                            case ROUNDED_RECT:
+                                double dx = Math.max(0, Math.max(left + radius - sx, sx - right + radius));
+                                double dy = Math.max(0, Math.max(top + radius - sy, sy - bottom + radius));
+                                if (dx * dx + dy * dy <= radius * radius) { hits++; }
+                                break;
+                            case SQUARE:
+                            default    :
+                                hits++;
+                                break;
+                        }
                     }
                 }
+                sprite[py * spriteWidth + px] = ((int) Math.round(alpha * hits / samples) << 24) | rgb;
+            }
+        }
+        return sprite;
+    }
+
+    /**
+     * Copies the last committed frame into the matrix and draws the changed dots,
+     * scheduled by commit() if no other frame was pending
+     */
+    private void applyPendingBuffer() {
+        DotMatrixBuffer frame = pendingBuffer.getAndSet(null);
+        if (null == frame) { return; }
+        if (frame.fits(cols, rows)) {
+            for (int y = 0 ; y < rows ; y++) {
+                for (int x = 0 ; x < cols ; x++) {
+                    setPixel(x, y, frame.getColorValueAt(x, y));
+                }
+            }
+            drawChangedDots();
+        }
+        spareBuffer.set(frame);
+    }
+
+    private void drawMarquee() {
+        if (null == marquee) { return; }
+        for (int y = 0 ; y < marqueeHeight ; y++) {
+            int row    = y * marqueeWidth;
+            int column = marqueeOffset;
+            for (int x = 0 ; x < cols ; x++) {
+                setPixel(x, marqueeY + y, marquee[row + column]);
+                if (++column == marqueeWidth) { column = 0; }
+            }
+        }
+        drawChangedDots();
+    }
+
+    private void markDirty(final int X, final int Y) {
+        if (X < dirtyFromX[Y]) { dirtyFromX[Y] = X; }
+        if (X > dirtyToX[Y])   { dirtyToX[Y]   = X; }
+    }
+
+    /**
+     * Returns the index of the given color in the palette or the index
+     * of the nearest palette color if it is not part of the palette
+     */
+    private int getPaletteIndex(final int COLOR_VALUE) {
+        if (lastPaletteIndex >= 0 && COLOR_VALUE == lastPaletteValue) { return lastPaletteIndex; }
+        int  index    = 0;
+        long distance = Long.MAX_VALUE;
+        for (int i = 0 ; i < paletteValues.length ; i++) {
+            int value = paletteValues[i];
+            if (value == COLOR_VALUE) {
+                index = i;
                 break;
+            }
+            long dr = ((value & RED_MASK) >> 16) - ((COLOR_VALUE & RED_MASK) >> 16);
+            long dg = ((value & GREEN_MASK) >> 8) - ((COLOR_VALUE & GREEN_MASK) >> 8);
+            long db = (value & BLUE_MASK) - (COLOR_VALUE & BLUE_MASK);
+            long da = ((value & ALPHA_MASK) >>> 24) - ((COLOR_VALUE & ALPHA_MASK) >>> 24);
+            long d  = dr * dr + dg * dg + db * db + da * da;
+            if (d < distance) {
+                distance = d;
+                index    = i;
+            }
+        }
+        lastPaletteValue = COLOR_VALUE;
+        lastPaletteIndex = index;
+        return index;
+    }
+
+    private void clearDirtyDots() {
+        for (int y = 0 ; y < rows ; y++) {
+            dirtyFromX[y] = Integer.MAX_VALUE;
+            dirtyToX[y]   = -1;
         }
     }
 
@@ -413,6 +1076,9 @@ public class DotMatrix extends Region {
         widthProperty().removeListener(sizeListener);
         heightProperty().removeListener(sizeListener);
         canvas.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        canvas.removeEventHandler(MouseEvent.MOUSE_MOVED, moveHandler);
+        canvas.removeEventHandler(MouseEvent.MOUSE_DRAGGED, moveHandler);
+        canvas.removeEventHandler(MouseEvent.MOUSE_EXITED, moveHandler);
     }
 
     private long getRed(final long COLOR_VALUE) { return  (COLOR_VALUE & RED_MASK) >> 16; }
@@ -420,17 +1086,79 @@ public class DotMatrix extends Region {
     private long getBlue(final long COLOR_VALUE) { return (COLOR_VALUE & BLUE_MASK); }
     private long getAlpha(final long COLOR_VALUE) { return (COLOR_VALUE & ALPHA_MASK) >>> 24; }
 
+    /**
+     * Returns the column of the dot at the given x-position or -1 if there is no dot.
+     * If STRICT is true positions in the spacer around the dot will return -1.
+     */
+    private int getColAt(final double X, final boolean STRICT) {
+        if (X < 0 || dotWidth <= 0) { return -1; }
+        int col = (int) (X / dotWidth);
+        if (col >= cols) { return -1; }
+        if (STRICT) {
+            double localX = X - col * dotWidth;
+            if (localX < spacer || localX > spacer + dotWidthMinusDoubleSpacer) { return -1; }
+        }
+        return col;
+    }
+
+    private int getRowAt(final double Y, final boolean STRICT) {
+        if (Y < 0 || dotHeight <= 0) { return -1; }
+        int row = (int) (Y / dotHeight);
+        if (row >= rows) { return -1; }
+        if (STRICT) {
+            double localY = Y - row * dotHeight;
+            if (localY < spacer || localY > spacer + dotHeightMinusDoubleSpacer) { return -1; }
+        }
+        return row;
+    }
+
     private void checkForClick(final MouseEvent EVT) {
-        double spacerPlusPixelWidthMinusDoubleSpacer  = spacer + dotWidthMinusDoubleSpacer;
-        double spacerPlusPixelHeightMinusDoubleSpacer = spacer + dotHeightMinusDoubleSpacer;
-        for (int y = 0; y < rows; y++) {
-            for (int x = 0; x < cols; x++) {
-                if (isInRectangle(EVT.getX(), EVT.getY(), x * dotWidth + spacer, y * dotHeight + spacer, x * dotWidth + spacerPlusPixelWidthMinusDoubleSpacer, y * dotHeight + spacerPlusPixelHeightMinusDoubleSpacer)) {
-                    fireDotMatrixEvent(new DotMatrixEvent(x, y, EVT.getScreenX(), EVT.getScreenY()));
-                    break;
-                }
+        int x = getColAt(EVT.getX(), true);
+        int y = getRowAt(EVT.getY(), true);
+        if (x < 0 || y < 0) { return; }
+        lastPointerX = x;
+        lastPointerY = y;
+        fireDotMatrixEvent(new DotMatrixEvent(x, y, EVT.getScreenX(), EVT.getScreenY(), DotMatrixEventType.PRESSED));
+    }
+
+    /**
+     * Fires HOVERED or DRAGGED events only if the pointer enters another dot, spacers
+     * will be mapped to the dot they surround. While dragging all dots on the line
+     * between the last and the current dot will be reported, so fast drags don't
+     * leave gaps when painting.
+     */
+    private void checkForMove(final MouseEvent EVT) {
+        if (listeners.isEmpty()) { return; }
+        if (MouseEvent.MOUSE_EXITED == EVT.getEventType()) {
+            if (lastPointerX >= 0) { fireDotMatrixEvent(new DotMatrixEvent(lastPointerX, lastPointerY, EVT.getScreenX(), EVT.getScreenY(), DotMatrixEventType.EXITED)); }
+            lastPointerX = -1;
+            lastPointerY = -1;
+            return;
+        }
+        int x = getColAt(EVT.getX(), false);
+        int y = getRowAt(EVT.getY(), false);
+        if (x < 0 || y < 0 || (x == lastPointerX && y == lastPointerY)) { return; }
+
+        if (MouseEvent.MOUSE_DRAGGED == EVT.getEventType() && lastPointerX >= 0) {
+            // Bresenham line from the last dot (already reported) to the current dot
+            int dx  = Math.abs(x - lastPointerX);
+            int dy  = -Math.abs(y - lastPointerY);
+            int sx  = lastPointerX < x ? 1 : -1;
+            int sy  = lastPointerY < y ? 1 : -1;
+            int err = dx + dy;
+            int cx  = lastPointerX;
+            int cy  = lastPointerY;
+            while (cx != x || cy != y) {
+                int e2 = 2 * err;
+                if (e2 >= dy) { err += dy; cx += sx; }
+                if (e2 <= dx) { err += dx; cy += sy; }
+                fireDotMatrixEvent(new DotMatrixEvent(cx, cy, EVT.getScreenX(), EVT.getScreenY(), DotMatrixEventType.DRAGGED));
             }
+        } else {
+            fireDotMatrixEvent(new DotMatrixEvent(x, y, EVT.getScreenX(), EVT.getScreenY(), MouseEvent.MOUSE_DRAGGED == EVT.getEventType() ? DotMatrixEventType.DRAGGED : DotMatrixEventType.HOVERED));
         }
+        lastPointerX = x;
+        lastPointerY = y;
     }
 
     private static void drawRoundedRect(final GraphicsContext CTX, final CtxBounds BOUNDS, final CtxCornerRadii RADII) {
@@ -454,15 +1182,6 @@ public class DotMatrix extends Region {
         CTX.closePath();
     }
 
-    private static boolean isInRectangle(final double X, final double Y,
-                                         final double MIN_X, final double MIN_Y,
-                                         final double MAX_X, final double MAX_Y) {
-        return (Double.compare(X, MIN_X) >= 0 &&
-                Double.compare(X, MAX_X) <= 0 &&
-                Double.compare(Y, MIN_Y) >= 0 &&
-                Double.compare(Y, MAX_Y) <= 0);
-    }
-
 
     // ******************** Resizing ******************************************
     private void resize() {
@@ -0,0 +1,62 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.dotmatrix;
+
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+
+/**
+ * A row-major frame of color values for a DotMatrix that can be filled on
+ * any thread (see DotMatrix.getBackBuffer() and DotMatrix.commit()).
+ */
+public class DotMatrixBuffer {
+    private final int   cols;
+    private final int   rows;
+    private final int[] pixels;
+
+
+    // ******************** Constructors **************************************
+    DotMatrixBuffer(final int COLS, final int ROWS, final int COLOR_VALUE) {
+        cols   = COLS;
+        rows   = ROWS;
+        pixels = new int[cols * rows];
+        Arrays.fill(pixels, COLOR_VALUE);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+
+    public void setPixel(final int X, final int Y, final Color COLOR) { setPixel(X, Y, DotMatrix.convertToInt(COLOR)); }
+    public void setPixel(final int X, final int Y, final int COLOR_VALUE) {
+        if (X >= cols || X < 0) return;
+        if (Y >= rows || Y < 0) return;
+        pixels[Y * cols + X] = COLOR_VALUE;
+    }
+
+    public int getColorValueAt(final int X, final int Y) { return pixels[Y * cols + X]; }
+
+    public void fill(final int COLOR_VALUE) { Arrays.fill(pixels, COLOR_VALUE); }
+
+    void copyFrom(final DotMatrixBuffer BUFFER) { System.arraycopy(BUFFER.pixels, 0, pixels, 0, pixels.length); }
+
+    boolean fits(final int COLS, final int ROWS) { return cols == COLS && rows == ROWS; }
+}
@@ -18,6 +18,7 @@
 package eu.hansolo.fx.dotmatrix;
 
 import eu.hansolo.fx.dotmatrix.DotMatrix.DotShape;
+import eu.hansolo.fx.dotmatrix.DotMatrix.RenderMode;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
@@ -70,6 +71,11 @@ public class DotMatrixBuilder<B extends DotMatrixBuilder<B>> {
         return (B)this;
     }
 
+    public final B renderMode(final RenderMode MODE) {
+        properties.put("renderMode", new SimpleObjectProperty<>(MODE));
+        return (B)this;
+    }
+
     public final B matrixFont(final MatrixFont FONT) {
         properties.put("matrixFont", new SimpleObjectProperty(FONT));
         return (B)this;
@@ -214,6 +220,8 @@ public class DotMatrixBuilder<B extends DotMatrixBuilder<B>> {
                 CONTROL.setDotOffColor(((ObjectProperty<Color>) properties.get(key)).get());
             } else if ("dotShape".equals(key)) {
                 CONTROL.setDotShape(((ObjectProperty<DotShape>) properties.get(key)).get());
+            } else if ("renderMode".equals(key)) {
+                CONTROL.setRenderMode(((ObjectProperty<RenderMode>) properties.get(key)).get());
             } else if ("matrixFont".equals(key)) {
                 CONTROL.setMatrixFont(((ObjectProperty<MatrixFont>) properties.get(key)).get());
             } else if ("useSpacer".equals(key)) {
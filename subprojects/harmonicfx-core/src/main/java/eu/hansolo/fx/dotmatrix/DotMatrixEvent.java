@@ -21,18 +21,23 @@ import javafx.geometry.Point2D;
 
 
 public class DotMatrixEvent {
-    private final int    x;
-    private final int    y;
-    private final double mouseScreenX;
-    private final double mouseScreenY;
+    private final int                x;
+    private final int                y;
+    private final double             mouseScreenX;
+    private final double             mouseScreenY;
+    private final DotMatrixEventType type;
 
 
     // ******************** Constructors **************************************
     public DotMatrixEvent(final int X, final int Y, final double MOUSE_X, final double MOUSE_Y) {
-        x      = X;
-        y      = Y;
+        this(X, Y, MOUSE_X, MOUSE_Y, DotMatrixEventType.PRESSED);
+    }
+    public DotMatrixEvent(final int X, final int Y, final double MOUSE_X, final double MOUSE_Y, final DotMatrixEventType TYPE) {
+        x            = X;
+        y            = Y;
         mouseScreenX = MOUSE_X;
         mouseScreenY = MOUSE_Y;
+        type         = TYPE;
     }
 
 
@@ -43,4 +48,6 @@ public class DotMatrixEvent {
     public double getMouseScreenX() { return mouseScreenX; }
     public double getMouseScreenY() { return mouseScreenY; }
     public Point2D getMouseScreenPos() { return new Point2D(mouseScreenX, mouseScreenY); }
+
+    public DotMatrixEventType getType() { return type; }
 }
@@ -26,4 +26,16 @@ public interface MatrixFont {
     int getCharacterHeight();
 
     int[] getCharacter(final char CHAR);
+
+    /**
+     * Returns the advance width of the given character, fonts with variable
+     * width return values <= getCharacterWidth()
+     */
+    default int getCharacterWidth(final int CODE_POINT) { return getCharacterWidth(); }
+
+    /**
+     * Returns the rows of the given character where the bit at
+     * (getCharacterWidth() - 1 - x) represents column x
+     */
+    default int[] getCharacter(final int CODE_POINT) { return getCharacter(CODE_POINT > Character.MAX_VALUE ? ' ' : (char) CODE_POINT); }
 }
@@ -25,6 +25,9 @@ import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
 import javafx.scene.paint.Color;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class Data<T> {
     private String                _name;
@@ -35,6 +38,7 @@ public class Data<T> {
     private ObjectProperty<T>     x;
     private double                _y;
     private DoubleProperty        y;
+    private List<Series<T>>       seriesList;
 
 
     // ******************** Constructors **************************************
@@ -131,6 +135,7 @@ public class Data<T> {
     public void setY(final double Y) {
         if (null == y) {
             _y = Y;
+            valueChanged();
         } else {
             y.set(Y);
         }
@@ -138,6 +143,7 @@ public class Data<T> {
     public DoubleProperty yProperty() {
         if (null == y) {
             y = new DoublePropertyBase(_y) {
+                @Override protected void invalidated() { valueChanged(); }
                 @Override public Object getBean() { return Data.this; }
                 @Override public String getName() { return "y"; }
             };
@@ -145,6 +151,22 @@ public class Data<T> {
         return y;
     }
 
+    /**
+     * Registers a series that contains this item, all series that contain the item
+     * will be informed about changes of the y-value to keep their min and max up to date.
+     * A series that contains the item more than once will be registered once per occurrence.
+     */
+    void addSeries(final Series<T> SERIES) {
+        if (null == seriesList) { seriesList = new ArrayList<>(1); }
+        seriesList.add(SERIES);
+    }
+    void removeSeries(final Series<T> SERIES) { if (null != seriesList) { seriesList.remove(SERIES); } }
+
+    private void valueChanged() {
+        if (null == seriesList) { return; }
+        for (int i = 0, size = seriesList.size() ; i < size ; i++) { seriesList.get(i).invalidateExtrema(); }
+    }
+
     /**
      * Returns all data in json format
      * @return all data in json format
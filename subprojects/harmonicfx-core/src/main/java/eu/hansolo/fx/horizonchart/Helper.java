@@ -17,15 +17,22 @@
  */
 package eu.hansolo.fx.horizonchart;
 
+import javafx.scene.Node;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.chart.XYChart;
 import javafx.scene.paint.Color;
+import javafx.stage.Window;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 
 public class Helper {
+    private static final Method OUTPUT_SCALE_X = getWindowMethod("getOutputScaleX");
+    private static final Method OUTPUT_SCALE_Y = getWindowMethod("getOutputScaleY");
+
 
     public static final int clamp(final int MIN, final int MAX, final int VALUE) {
         if (VALUE < MIN) return MIN;
@@ -145,6 +152,108 @@ public class Helper {
         return subdividedPoints;
     }
 
+    /**
+     * Returns the horizontal scale from logical to device pixels of the window the node
+     * is shown in. Window.getOutputScaleX() is only available since JavaFX 9, with
+     * older versions (or without a window) 1 will be returned.
+     */
+    public static final double getOutputScaleX(final Node NODE) { return getOutputScale(NODE, OUTPUT_SCALE_X); }
+    public static final double getOutputScaleY(final Node NODE) { return getOutputScale(NODE, OUTPUT_SCALE_Y); }
+
+    private static double getOutputScale(final Node NODE, final Method METHOD) {
+        if (null == METHOD || null == NODE.getScene() || null == NODE.getScene().getWindow()) { return 1; }
+        try {
+            double scale = (double) METHOD.invoke(NODE.getScene().getWindow());
+            return scale > 0 ? scale : 1;
+        } catch (ReflectiveOperationException e) {
+            return 1;
+        }
+    }
+
+    private static Method getWindowMethod(final String NAME) {
+        try {
+            return Window.class.getMethod(NAME);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static final double catmullRom(final double P0, final double P1, final double P2, final double P3, final double T) {
+        return 0.5 * ((2 * P1) + (P2 - P0) * T + (2 * P0 - 5 * P1 + 4 * P2 - P3) * T * T + (3 * P1 - P0 - 3 * P2 + P3) * T * T * T);
+    }
+
+    /**
+     * Allocation free version of subdividePoints() and subdividePointsLinear() for values
+     * with x == index. Writes the ((NO_OF_VALUES - 1) * SUB_DIVISIONS) + 1 subdivided points
+     * to XS and YS which need to be big enough.
+     * @return the number of subdivided points
+     */
+    public static final int subdivide(final double[] VALUES, final int NO_OF_VALUES, final int SUB_DIVISIONS, final boolean SMOOTHED, final double[] XS, final double[] YS) {
+        if (NO_OF_VALUES < 2) { return 0; }
+        double increments = 1.0 / (double) SUB_DIVISIONS;
+        int    index      = 0;
+        for (int i = 0 ; i < NO_OF_VALUES - 1 ; i++) {
+            int    i0 = i == 0 ? i : i - 1;
+            int    i3 = i + 2 == NO_OF_VALUES ? i + 1 : i + 2;
+            double y0 = VALUES[i0];
+            double y1 = VALUES[i];
+            double y2 = VALUES[i + 1];
+            double y3 = VALUES[i3];
+            for (int j = 0 ; j < SUB_DIVISIONS ; j++) {
+                double t = j * increments;
+                if (SMOOTHED) {
+                    XS[index] = catmullRom(i0, i, i + 1, i3, t);
+                    YS[index] = catmullRom(y0, y1, y2, y3, t);
+                } else {
+                    XS[index] = i + t;
+                    YS[index] = y1 + (y2 - y1) * t;
+                }
+                index++;
+            }
+        }
+        XS[index] = NO_OF_VALUES - 1;
+        YS[index] = VALUES[NO_OF_VALUES - 1];
+        return index + 1;
+    }
+
+    /**
+     * Fills the horizon bands of the given points that are used by HorizonChart and
+     * HorizonChartGrid. A point is drawn at x = OFFSET_X + XS[i] * SCALE_X and the part
+     * of its value within a band at y = BOTTOM - (value - bandMin) * SCALE_Y, values above
+     * the band have to be cut off by clipping to the area of the chart (or row).
+     * Values above 0 are taken from ABOVE_YS, values below 0 from BELOW_YS.
+     */
+    public static final void drawBands(final GraphicsContext CTX, final double[] XS, final double[] ABOVE_YS, final double[] BELOW_YS, final int NO_OF_POINTS,
+                                       final double OFFSET_X, final double SCALE_X, final double BOTTOM, final double SCALE_Y,
+                                       final int NO_OF_BANDS, final double BAND_WIDTH, final List<Color> ABOVE_COLORS, final List<Color> BELOW_COLORS) {
+        if (NO_OF_POINTS < 1) { return; }
+        double maxAbove = 0;
+        double maxBelow = 0;
+        for (int i = 0 ; i < NO_OF_POINTS ; i++) {
+            if (ABOVE_YS[i] > maxAbove) { maxAbove = ABOVE_YS[i]; }
+            if (-BELOW_YS[i] > maxBelow) { maxBelow = -BELOW_YS[i]; }
+        }
+        for (int band = 0 ; band < NO_OF_BANDS ; band++) {
+            double bandMin = band * BAND_WIDTH;
+            // Draw values above 0
+            if (maxAbove > bandMin) { drawBand(CTX, XS, ABOVE_YS, NO_OF_POINTS, OFFSET_X, SCALE_X, BOTTOM, SCALE_Y, 1, bandMin, ABOVE_COLORS.get(band)); }
+            // Draw values below 0
+            if (maxBelow > bandMin) { drawBand(CTX, XS, BELOW_YS, NO_OF_POINTS, OFFSET_X, SCALE_X, BOTTOM, SCALE_Y, -1, bandMin, BELOW_COLORS.get(band)); }
+        }
+    }
+    private static void drawBand(final GraphicsContext CTX, final double[] XS, final double[] YS, final int NO_OF_POINTS, final double OFFSET_X, final double SCALE_X,
+                                 final double BOTTOM, final double SCALE_Y, final double SIGN, final double BAND_MIN, final Color COLOR) {
+        CTX.beginPath();
+        CTX.moveTo(OFFSET_X + XS[0] * SCALE_X, BOTTOM);
+        for (int i = 0 ; i < NO_OF_POINTS ; i++) {
+            CTX.lineTo(OFFSET_X + XS[i] * SCALE_X, BOTTOM - (SIGN * YS[i] - BAND_MIN) * SCALE_Y);
+        }
+        CTX.lineTo(OFFSET_X + XS[NO_OF_POINTS - 1] * SCALE_X, BOTTOM);
+        CTX.closePath();
+        CTX.setFill(COLOR);
+        CTX.fill();
+    }
+
     public static Point calcIntermediatePoint(final Point LEFT_POINT, final Point RIGHT_POINT, final double INTERVAL_X) {
         double m = (RIGHT_POINT.getY() - LEFT_POINT.getY()) / (RIGHT_POINT.getX() - LEFT_POINT.getX());
         double x = INTERVAL_X;
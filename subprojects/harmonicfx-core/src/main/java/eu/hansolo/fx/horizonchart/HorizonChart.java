@@ -17,24 +17,26 @@
  */
 package eu.hansolo.fx.horizonchart;
 
+import javafx.application.Platform;
 import javafx.beans.DefaultProperty;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
 import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Tooltip;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
 import javafx.stage.PopupWindow.AnchorLocation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static eu.hansolo.fx.horizonchart.Helper.clamp;
 
@@ -46,6 +48,7 @@ import static eu.hansolo.fx.horizonchart.Helper.clamp;
  */
 @DefaultProperty("children")
 public class HorizonChart<T> extends Region {
+    public enum Aggregation { NONE, MIN_MAX, MEAN }
     private static final double                   PREFERRED_WIDTH    = 250;
     private static final double                   PREFERRED_HEIGHT   = 25;
     private static final double                   MINIMUM_WIDTH      = 10;
@@ -54,12 +57,26 @@ public class HorizonChart<T> extends Region {
     private static final double                   MAXIMUM_HEIGHT     = 4096;
     private static final int                      MAX_NO_OF_BANDS    = 5;
     private static final int                      SUB_DIVISIONS      = 24;
+    private static final int                      MIN_WINDOW_SIZE    = 2;
     private              double                   width;
     private              double                   height;
     private              Canvas                   canvas;
     private              GraphicsContext          ctx;
     private              Series<T>                series;
-    private              List<Point>              points;
+    private              double[]                 values;
+    private              double[]                 xs;
+    private              double[]                 ys;
+    private              double[]                 columnMins;
+    private              double[]                 columnMaxs;
+    private              int[]                    columnItems;
+    private              int                      noOfColumns;
+    private              Aggregation              aggregation;
+    private              boolean                  realTime;
+    private              int                      windowSize;
+    private              double                   drift;
+    private              double[]                 tail;
+    private              WritableImage            raster;
+    private              SnapshotParameters       snapshotParameters;
     private              double                   scaleX;
     private              double                   scaleY;
     private              boolean                  smoothed;
@@ -78,6 +95,7 @@ public class HorizonChart<T> extends Region {
     private              List<Color>              aboveColors;
     private              EventHandler<MouseEvent> mouseListener;
     private              SeriesEventListener      seriesListener;
+    private              boolean                  redrawScheduled;
 
 
     // ******************** Constructors **************************************
@@ -97,23 +115,31 @@ public class HorizonChart<T> extends Region {
         smoothed      = SMOOTHED;
         referenceZero = true;
         noOfBands     = clamp(1, MAX_NO_OF_BANDS, BANDS);
-        noOfItems     = SERIES.getNoOfItems();
-        minY          = SERIES.getItems().stream().mapToDouble(Data::getY).min().getAsDouble();
-        maxY          = SERIES.getItems().stream().mapToDouble(Data::getY).max().getAsDouble();
-        bandWidth     = (maxY - minY) / noOfBands;
+        values        = new double[0];
+        xs            = new double[0];
+        ys            = new double[0];
+        columnMins    = new double[0];
+        columnMaxs    = new double[0];
+        columnItems   = new int[0];
+        noOfColumns   = 0;
+        aggregation   = Aggregation.MIN_MAX;
+        realTime      = false;
+        windowSize    = 60;
+        drift         = 0;
+        tail          = new double[4];
         tooltip       = new Tooltip();
         tooltip.setAnchorLocation(AnchorLocation.CONTENT_BOTTOM_LEFT);
 
         adjustColors();
 
-        // Create list of points
-        points = new ArrayList<>(noOfItems);
+        // Fill values, minY, maxY and bandWidth
         prepareData();
 
         mouseListener           = mouseEvent -> {
             final EventType<? extends MouseEvent> TYPE = mouseEvent.getEventType();
             if (MouseEvent.MOUSE_CLICKED == TYPE) {
                 Data<T> data = selectDataAt(mouseEvent.getX());
+                if (null == data) { return; }
                 tooltip.setText(createTooltipText(data));
                 tooltip.setX(mouseEvent.getScreenX());
                 tooltip.setY(mouseEvent.getScreenY());
@@ -125,7 +151,9 @@ public class HorizonChart<T> extends Region {
                 tooltip.hide();
             }
         };
-        seriesListener          = seriesEvent -> redraw();
+        seriesListener          = seriesEvent -> {
+            if (SeriesEventType.REDRAW == seriesEvent.getType()) { scheduleRedraw(); }
+        };
 
         initGraphics();
         registerListeners();
@@ -146,6 +174,9 @@ public class HorizonChart<T> extends Region {
         canvas = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT);
         ctx    = canvas.getGraphicsContext2D();
 
+        snapshotParameters = new SnapshotParameters();
+        snapshotParameters.setFill(Color.TRANSPARENT);
+
         getChildren().setAll(canvas);
     }
 
@@ -243,6 +274,109 @@ public class HorizonChart<T> extends Region {
         resize();
     }
 
+    /**
+     * Returns the aggregation that will be used if the series contains
+     * more items than the chart has pixel columns
+     * @return the aggregation used for dense series
+     */
+    public Aggregation getAggregation() { return aggregation; }
+    /**
+     * Defines the aggregation that will be used if the series contains
+     * more items than the chart has pixel columns. MIN_MAX draws the
+     * max of each column for the positive bands and the min of each column
+     * for the negative bands, MEAN draws the mean of each column and NONE
+     * draws all items.
+     * @param AGGREGATION
+     */
+    public void setAggregation(final Aggregation AGGREGATION) {
+        aggregation = null == AGGREGATION ? Aggregation.NONE : AGGREGATION;
+        drawChart();
+    }
+
+    /**
+     * Returns true if the items of the series are currently aggregated
+     * per pixel column
+     * @return true if the items of the series are currently aggregated
+     */
+    public boolean isAggregated() { return Aggregation.NONE != aggregation && getNoOfItems() > Math.ceil(width); }
+
+    /**
+     * Returns true if the chart scrolls new items in from the right
+     * (see addData())
+     * @return true if the chart scrolls new items in from the right
+     */
+    public boolean isRealTime() { return realTime; }
+    /**
+     * Defines if the chart scrolls new items in from the right. In real-time
+     * mode the chart always shows the last windowSize items with the latest
+     * item at the right border. Items added by addData() will shift the
+     * existing raster to the left and only the newly exposed columns will
+     * be rendered. While scrolling the range of y-values will only grow,
+     * it will be recalculated on the next full repaint.
+     * @param REAL_TIME
+     */
+    public void setRealTime(final boolean REAL_TIME) {
+        realTime = REAL_TIME;
+        if (realTime) { trimToWindowSize(); }
+        redraw();
+    }
+
+    /**
+     * Returns the number of items that will be visible in real-time mode
+     * @return the number of items that will be visible in real-time mode
+     */
+    public int getWindowSize() { return windowSize; }
+    /**
+     * Defines the number of items that will be visible in real-time mode,
+     * older items will be removed from the series
+     * @param SIZE
+     */
+    public void setWindowSize(final int SIZE) {
+        windowSize = Math.max(MIN_WINDOW_SIZE, SIZE);
+        if (realTime) {
+            trimToWindowSize();
+            redraw();
+        }
+    }
+
+    /**
+     * Adds the given item to the series and updates the chart. In real-time
+     * mode the oldest items will be removed from the series if it contains
+     * more than windowSize items and the chart will be scrolled instead
+     * of being redrawn completely.
+     * @param DATA
+     */
+    public void addData(final Data<T> DATA) {
+        series.getItems().add(DATA);
+        if (!realTime) {
+            redraw();
+            return;
+        }
+        boolean removed = trimToWindowSize();
+        double  y       = DATA.getY();
+
+        // The reference value and the y-range define all band positions, items might also have been changed without addData()
+        if (!isReferenceZero() || y < getMinY() || y > getMaxY() || noOfItems < MIN_WINDOW_SIZE || width <= 0 || height <= 0 ||
+            series.getNoOfItems() != (removed ? noOfItems : noOfItems + 1)) {
+            redraw();
+            return;
+        }
+
+        if (removed) {
+            System.arraycopy(values, 1, values, 0, noOfItems - 1);
+        } else {
+            if (values.length <= noOfItems) { values = Arrays.copyOf(values, Math.max(windowSize, noOfItems + 1)); }
+            noOfItems++;
+        }
+        values[noOfItems - 1] = y;
+
+        if (isAggregated()) {
+            drawChart();
+        } else {
+            scroll();
+        }
+    }
+
     /**
      * Returns the number of items in the current series
      * @return the number of items in the current series
@@ -336,158 +470,205 @@ public class HorizonChart<T> extends Region {
     }
 
     /**
-     * Fill the list of points with the current data from the series
+     * Fill the values with the current data from the series normalized to the
+     * reference value and update minY, maxY and the band width
      */
     private void prepareData() {
-        // Create list of points
-        points.clear();
-        for (int i = 0; i < getNoOfItems(); i++) { points.add(new Point(i, series.getItems().get(i).getY())); }
+        List<Data<T>> items = series.getItems();
+        noOfItems = items.size();
+        if (values.length < noOfItems) { values = new double[noOfItems]; }
+
+        for (int i = 0 ; i < noOfItems ; i++) { values[i] = items.get(i).getY(); }
+        minY      = series.getMinY();
+        maxY      = series.getMaxY();
+        bandWidth = getRangeY() / getNoOfBands();
 
         // Normalize y values to 0
-        double refValue = isReferenceZero() ? 0 : (points.isEmpty() ? 0 : points.get(0).getY());
-        points.forEach(point -> point.setY(point.getY() - refValue));
+        double refValue = isReferenceZero() || noOfItems == 0 ? 0 : values[0];
+        for (int i = 0 ; i < noOfItems ; i++) { values[i] -= refValue; }
     }
 
+    /**
+     * Subdivides the values in one pass into the reusable xs and ys arrays and fills
+     * each band directly from them. The values of each band will be shifted down by
+     * the lower bound of the band, the canvas clips everything below the band (which
+     * also includes the values on the other side of the reference) and everything
+     * above the band, so no intersection points have to be calculated.
+     * If the series contains more items than pixel columns, the items will be
+     * aggregated per column instead of being subdivided.
+     */
     private void drawChart() {
-        if (series.getItems().isEmpty()) { return; }
-
         ctx.clearRect(0, 0, width, height);
-
-        // Subdivide points
-        Point[] subdividedPoints;
-        if (smoothed) {
-            subdividedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
-        } else {
-            subdividedPoints = Helper.subdividePointsLinear(points.toArray(new Point[0]), SUB_DIVISIONS);
+        drift       = 0;
+        noOfColumns = 0;
+        if (noOfItems < 2) { return; }
+
+        if (isAggregated()) {
+            aggregate();
+            drawBands(xs, columnMaxs, columnMins, noOfColumns, 1, getOffsetX());
+            return;
         }
 
-        // Split in points above and below 0
-        List<Point>[] splittedPoints = splitIntoAboveAndBelow(Arrays.asList(subdividedPoints));
-        List<Point>   aboveRefPoints = splittedPoints[0];
-        List<Point>   belowRefPoints = splittedPoints[1];
-
-        // Split points above and below 0 into bands
-        Map<Integer, List<Point>> aboveRefPointsSplitToBands = splitIntoBands(aboveRefPoints, bandWidth);
-        Map<Integer, List<Point>> belowRefPointsSplitToBands = splitIntoBands(belowRefPoints, bandWidth);
-
-        // Draw values above 0
-        if (!aboveRefPoints.isEmpty()) { drawPath(aboveRefPointsSplitToBands, aboveColors); }
-
-        // Draw values below 0
-        if (!belowRefPoints.isEmpty()) { drawPath(belowRefPointsSplitToBands, belowColors); }
+        int capacity = ((noOfItems - 1) * SUB_DIVISIONS) + 1;
+        if (xs.length < capacity) {
+            xs = new double[capacity];
+            ys = new double[capacity];
+        }
+        int noOfPoints = Helper.subdivide(values, noOfItems, SUB_DIVISIONS, smoothed, xs, ys);
+        drawBands(xs, ys, ys, noOfPoints, scaleX, getOffsetX());
     }
 
-    private void drawPath(final Map<Integer, List<Point>> MAP_OF_BANDS, final List<Color> COLORS) {
-        double oldX = 0;
-        for (int band = 0 ; band < getNoOfBands() ; band++) {
-            ctx.beginPath();
-            for (Point p : MAP_OF_BANDS.get(band)) {
-                double x = p.getX() * scaleX;
-                double y = height - (p.getY() * scaleY);
-                ctx.lineTo(x, y + (band * bandWidth) * scaleY);
-                oldX = x;
-            }
-            ctx.lineTo(oldX, height);
-            ctx.lineTo(0, height);
-            ctx.closePath();
-            ctx.setFill(COLORS.get(band));
-            ctx.fill();
+    /**
+     * Shifts the current raster by the width of one item to the left and renders
+     * the segments that are affected by the last item. Because the raster can only
+     * be shifted by whole device pixels, the difference to the exact position will
+     * be kept in drift and taken into account when rendering the new segments. The
+     * snapshot is taken in device pixels to not lose resolution on HiDPI screens.
+     */
+    private void scroll() {
+        double outputScaleX = Helper.getOutputScaleX(canvas);
+        double outputScaleY = Helper.getOutputScaleY(canvas);
+        double shift        = Math.round((drift + scaleX) * outputScaleX) / outputScaleX;
+        drift = drift + scaleX - shift;
+
+        int rasterWidth  = (int) Math.ceil(width * outputScaleX);
+        int rasterHeight = (int) Math.ceil(height * outputScaleY);
+        if (null == raster || raster.getWidth() != rasterWidth || raster.getHeight() != rasterHeight) {
+            raster = new WritableImage(rasterWidth, rasterHeight);
+            snapshotParameters.setTransform(Transform.scale(outputScaleX, outputScaleY));
         }
+        canvas.snapshot(snapshotParameters, raster);
+        ctx.clearRect(0, 0, width, height);
+        ctx.drawImage(raster, -shift, 0, rasterWidth / outputScaleX, rasterHeight / outputScaleY);
+
+        // A smoothed segment depends on the next item, so the last two segments have to be rendered
+        int noOfTailItems = Math.min(noOfItems, tail.length);
+        int firstItem     = noOfItems - noOfTailItems;
+        System.arraycopy(values, firstItem, tail, 0, noOfTailItems);
+        int noOfPoints = Helper.subdivide(tail, noOfTailItems, SUB_DIVISIONS, smoothed, xs, ys);
+
+        double offsetX = getOffsetX() + firstItem * scaleX;
+        double fromX   = Math.floor(offsetX + Math.max(0, noOfTailItems - (smoothed ? 3 : 2)) * scaleX);
+        ctx.save();
+        ctx.beginPath();
+        ctx.rect(fromX, 0, width - fromX, height);
+        ctx.clip();
+        ctx.clearRect(fromX, 0, width - fromX, height);
+        drawBands(xs, ys, ys, noOfPoints, scaleX, offsetX);
+        ctx.restore();
     }
 
-    private List<Point>[] splitIntoAboveAndBelow(final List<Point> POINTS) {
-        ArrayList<Point> aboveReferencePoints = new ArrayList<>();
-        ArrayList<Point> belowReferencePoints = new ArrayList<>();
-        Point   last       = POINTS.get(0);
-        boolean isAbove    = Double.compare(last.getY(), 0.0) >= 0;
-        int     noOfPoints = POINTS.size();
-        for (int i = 0 ; i < noOfPoints ; i++) {
-            Point current = POINTS.get(i);
-            Point next    = i < noOfPoints - 1 ? POINTS.get(i + 1) : POINTS.get(noOfPoints - 1);
-
-            if (Double.compare(current.getY(), 0.0) >= 0) {
-                if (!isAbove) {
-                    Point p = Helper.calcIntersectionPoint(last, current, 0.0);
-                    aboveReferencePoints.add(p);
-                    belowReferencePoints.add(p);
+    /**
+     * Collapses the values into one min, max and mean value per pixel column. For each
+     * column the index of the item with the largest deviation from the reference (MIN_MAX)
+     * or the item next to the column center (MEAN) will be stored for selectDataAt().
+     */
+    private void aggregate() {
+        int columns = (int) Math.ceil(width);
+        if (columnMins.length < columns) {
+            columnMins  = new double[columns];
+            columnMaxs  = new double[columns];
+            columnItems = new int[columns];
+        }
+        if (xs.length < columns) {
+            xs = new double[columns];
+            ys = new double[columns];
+        }
+
+        boolean mean   = Aggregation.MEAN == aggregation;
+        int     column = -1;
+        int     count  = 0;
+        double  sum    = 0;
+        for (int i = 0 ; i < noOfItems ; i++) {
+            int    c     = Math.min(columns - 1, (int) (i * scaleX));
+            double value = values[i];
+            if (c != column) {
+                if (column > -1) { ys[column] = sum / count; }
+                // Columns without items (only possible due to rounding) repeat the previous column
+                for (int empty = column + 1 ; empty < c ; empty++) {
+                    columnMins[empty]  = columnMins[column];
+                    columnMaxs[empty]  = columnMaxs[column];
+                    columnItems[empty] = columnItems[column];
+                    ys[empty]          = ys[column];
+                    xs[empty]          = empty;
                 }
-                aboveReferencePoints.add(current);
-                isAbove = true;
+                column              = c;
+                columnMins[column]  = value;
+                columnMaxs[column]  = value;
+                columnItems[column] = i;
+                xs[column]          = column;
+                count               = 0;
+                sum                 = 0;
             } else {
-                if (isAbove) {
-                    Point p = Helper.calcIntersectionPoint(current, next, 0.0);
-                    aboveReferencePoints.add(p);
-                    belowReferencePoints.add(p);
+                if (value < columnMins[column]) { columnMins[column] = value; }
+                if (value > columnMaxs[column]) { columnMaxs[column] = value; }
+                if (mean) {
+                    if (Math.abs(i * scaleX - column - 0.5) < Math.abs(columnItems[column] * scaleX - column - 0.5)) { columnItems[column] = i; }
+                } else if (Math.abs(value) > Math.abs(values[columnItems[column]])) {
+                    columnItems[column] = i;
                 }
-                // Invert y values that are below the reference point
-                belowReferencePoints.add(new Point(current.getX(), -current.getY()));
-                isAbove = false;
             }
-            last = current;
+            sum += value;
+            count++;
         }
-        return new ArrayList[] { aboveReferencePoints, belowReferencePoints };
-    }
+        ys[column]  = sum / count;
+        noOfColumns = column + 1;
 
-    private Map<Integer, List<Point>> splitIntoBands(final List<Point> POINTS, final double BAND_WIDTH) {
-        Map<Integer, List<Point>> mapOfBands = new HashMap<>(getNoOfBands());
-        if (POINTS.isEmpty()) { return mapOfBands; }
-
-        int    noOfPoints = POINTS.size();
-        double currentBandMinY;
-        double currentBandMaxY;
-        double currentBandMinYScaled;
-        double currentBandMaxYScaled;
-
-        // Add first point to all bands
-        Point firstPoint = new Point(POINTS.get(0).getX(), POINTS.get(0).getY());
-        for (int band = 0 ; band < getNoOfBands() ; band++) {
-            List<Point> listOfPointsInBand = new ArrayList<>(noOfPoints);
-            listOfPointsInBand.add(firstPoint);
-            mapOfBands.put(band, listOfPointsInBand);
+        if (mean) {
+            System.arraycopy(ys, 0, columnMins, 0, noOfColumns);
+            System.arraycopy(ys, 0, columnMaxs, 0, noOfColumns);
         }
+    }
 
-        // Iterate over all points and check for each band
-        for (int i = 1 ; i < noOfPoints - 1 ; i++) {
-            Point  last     = POINTS.get(i - 1);
-            double lastY    = height - (last.getY() * scaleY);
-            Point  current  = POINTS.get(i);
-            double currentY = height - (current.getY() * scaleY);
-            Point  next     = POINTS.get(i + 1);
-            double nextY    = height - (next.getY() * scaleY);
-
-            for (int band = 0 ; band < getNoOfBands() ; band++) {
-                currentBandMinY       = band * BAND_WIDTH;
-                currentBandMaxY       = currentBandMinY + BAND_WIDTH;
-                currentBandMinYScaled = height - currentBandMinY * scaleY;
-                currentBandMaxYScaled = height - currentBandMaxY * scaleY;
-
-                if (Double.compare(lastY, currentBandMinYScaled) >= 0) {             // last <= currentBandMinY
-                    // Calculate intersection with currentBandMinY
-                    mapOfBands.get(band).add(Helper.calcIntersectionPoint(last, current, currentBandMinY));
-                } else if (Double.compare(currentY, currentBandMinYScaled) <= 0 &&
-                           Double.compare(currentY, currentBandMaxYScaled) >= 0) {   // currentBandMinY < current < currentBandMaxY
-                    mapOfBands.get(band).add(new Point(current.getX(), current.getY()));
-                } else if (Double.compare(nextY, currentBandMaxYScaled) <= 0) {      // next >= currentBandMaxY
-                    // Calculate intersection with currentBandMaxY
-                    mapOfBands.get(band).add(Helper.calcIntersectionPoint(current, next, currentBandMaxY));
-                }
-            }
+    private void drawBands(final double[] XS, final double[] ABOVE_YS, final double[] BELOW_YS, final int NO_OF_POINTS, final double SCALE_X, final double OFFSET_X) {
+        Helper.drawBands(ctx, XS, ABOVE_YS, BELOW_YS, NO_OF_POINTS, OFFSET_X, SCALE_X, height, scaleY, getNoOfBands(), bandWidth, aboveColors, belowColors);
+    }
+
+    private Data<T> selectDataAt(final double MOUSE_X) {
+        if (0 == getNoOfItems()) { return null; }
+        int index;
+        double x = MOUSE_X - getOffsetX();
+        if (noOfColumns > 0) {
+            index = columnItems[clamp(0, noOfColumns - 1, (int) x)];
+        } else {
+            index = clamp(0, getNoOfItems() - 1, (int) Math.round(x / scaleX));
         }
+        return getSeries().getItems().get(index);
+    }
 
-        // Add last point to all bands
-        Point lastPoint = new Point(POINTS.get(noOfPoints - 1).getX(), clamp(0, BAND_WIDTH, POINTS.get(noOfPoints - 1).getY()));
-        mapOfBands.forEach((band, pointsInBand) -> {
-            Point lastPointInBand = pointsInBand.get(pointsInBand.size() - 1);
-            if(noOfPoints - lastPointInBand.getX() > 2) { pointsInBand.add(new Point(noOfPoints - 1, lastPointInBand.getY())); }
-            pointsInBand.add(lastPoint);
+    /**
+     * Coalesces all REDRAW events of the series into one redraw() on the FX application
+     * thread, the scheduled redraw will be skipped if redraw() was called in the meantime
+     */
+    private void scheduleRedraw() {
+        if (redrawScheduled) { return; }
+        redrawScheduled = true;
+        Platform.runLater(() -> {
+            if (redrawScheduled) { redraw(); }
         });
+    }
 
-        return mapOfBands;
+    /**
+     * Returns the x position of the first item, in real-time mode the last
+     * item will always be at the right border
+     */
+    private double getOffsetX() { return realTime ? (windowSize - noOfItems) * scaleX + drift : 0; }
+
+    /**
+     * Removes the oldest items from the series if it contains more than
+     * windowSize items
+     * @return true if items have been removed
+     */
+    private boolean trimToWindowSize() {
+        ObservableList<Data<T>> items = series.getItems();
+        if (items.size() <= windowSize) { return false; }
+        items.remove(0, items.size() - windowSize);
+        return true;
     }
 
-    private Data<T> selectDataAt(final double MOUSE_X) {
-        int index = clamp(0, getNoOfItems(), (int) (MOUSE_X / scaleX));
-        return getSeries().getItems().get(index);
+    private void updateScale() {
+        scaleX = width / ((realTime ? windowSize : getNoOfItems()) - 1);
+        scaleY = height / (getRangeY() / (getNoOfBands()));
     }
 
     private String createTooltipText(final Data<T> DATA) {
@@ -536,21 +717,20 @@ public class HorizonChart<T> extends Region {
             canvas.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
 
             // Scale chart in x- and y-direction to visible pane
-            scaleX = width / (getNoOfItems() - 1);
-            scaleY = height / (getRangeY() / (getNoOfBands()));
+            updateScale();
 
             drawChart();
         }
     }
 
+    /**
+     * Redraws the chart immediately, REDRAW events of the series will
+     * be coalesced and lead to a call of this method later on
+     */
     public void redraw() {
-        noOfItems = getSeries().getNoOfItems();
-        minY      = getSeries().getItems().stream().mapToDouble(Data::getY).min().getAsDouble();
-        maxY      = getSeries().getItems().stream().mapToDouble(Data::getY).max().getAsDouble();
-        bandWidth = getRangeY() / getNoOfBands();
-        scaleX    = width / (getNoOfItems() - 1);
-        scaleY    = height / (getRangeY() / (getNoOfBands()));
+        redrawScheduled = false;
         prepareData();
+        updateScale();
         drawChart();
     }
 }
@@ -0,0 +1,555 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.horizonchart;
+
+import javafx.application.Platform;
+import javafx.beans.DefaultProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.stage.PopupWindow.AnchorLocation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static eu.hansolo.fx.horizonchart.Helper.clamp;
+
+
+/**
+ * Renders many series as horizon chart rows into one canvas. All rows share
+ * the x-axis, the number of bands and the colors, each row uses the range of
+ * its own series. Only the rows that are visible in the current viewport will
+ * be rendered, the viewport can be moved by scrolling or setScrollOffset().
+ */
+@DefaultProperty("children")
+public class HorizonChartGrid<T> extends Region {
+    private static final double                        PREFERRED_WIDTH  = 250;
+    private static final double                        PREFERRED_HEIGHT = 250;
+    private static final double                        MINIMUM_WIDTH    = 10;
+    private static final double                        MINIMUM_HEIGHT   = 10;
+    private static final double                        MAXIMUM_WIDTH    = 4096;
+    private static final double                        MAXIMUM_HEIGHT   = 4096;
+    private static final int                           MAX_NO_OF_BANDS  = 5;
+    private static final int                           SUB_DIVISIONS    = 24;
+    private              double                        width;
+    private              double                        height;
+    private              Canvas                        canvas;
+    private              GraphicsContext               ctx;
+    private              ObservableList<Series<T>>     series;
+    private              double[]                      values;
+    private              double[]                      xs;
+    private              double[]                      ys;
+    private              double                        scaleX;
+    private              boolean                       smoothed;
+    private              boolean                       referenceZero;
+    private              int                           noOfBands;
+    private              int                           noOfItems;
+    private              double                        rowHeight;
+    private              double                        rowSpacing;
+    private              double                        scrollOffset;
+    private              Tooltip                       tooltip;
+    private              Color                         aboveColorFrom;
+    private              Color                         aboveColorTo;
+    private              Color                         belowColorFrom;
+    private              Color                         belowColorTo;
+    private              List<Color>                   belowColors;
+    private              List<Color>                   aboveColors;
+    private              EventHandler<MouseEvent>      mouseListener;
+    private              EventHandler<ScrollEvent>     scrollListener;
+    private              SeriesEventListener           seriesListener;
+    private              ListChangeListener<Series<T>> seriesListListener;
+    private              BitSet                        dirtyRows;
+    private              boolean                       redrawScheduled;
+
+
+    // ******************** Constructors **************************************
+    public HorizonChartGrid() {
+        this(1, new ArrayList<>(), false);
+    }
+    public HorizonChartGrid(final List<Series<T>> SERIES) {
+        this(1, SERIES, false);
+    }
+    public HorizonChartGrid(final int BANDS, final List<Series<T>> SERIES) {
+        this(BANDS, SERIES, false);
+    }
+    public HorizonChartGrid(final int BANDS, final List<Series<T>> SERIES, final boolean SMOOTHED) {
+        series        = FXCollections.observableArrayList(SERIES);
+        values        = new double[0];
+        xs            = new double[0];
+        ys            = new double[0];
+        scaleX        = 1;
+        smoothed      = SMOOTHED;
+        referenceZero = true;
+        noOfBands     = clamp(1, MAX_NO_OF_BANDS, BANDS);
+        rowHeight     = 25;
+        rowSpacing    = 1;
+        scrollOffset  = 0;
+        dirtyRows     = new BitSet();
+        aboveColors   = Helper.createColorVariationsAsList(Color.BLUE, noOfBands);
+        belowColors   = Helper.createColorVariationsAsList(Color.RED, noOfBands);
+        tooltip       = new Tooltip();
+        tooltip.setAnchorLocation(AnchorLocation.CONTENT_BOTTOM_LEFT);
+
+        mouseListener      = mouseEvent -> {
+            final EventType<? extends MouseEvent> TYPE = mouseEvent.getEventType();
+            if (MouseEvent.MOUSE_CLICKED == TYPE) {
+                int row = getRowAt(mouseEvent.getY());
+                if (row < 0) { return; }
+                Series<T> rowSeries = series.get(row);
+                Data<T>   data      = selectDataAt(rowSeries, mouseEvent.getX());
+                if (null == data) { return; }
+                tooltip.setText(createTooltipText(rowSeries, data));
+                tooltip.setX(mouseEvent.getScreenX());
+                tooltip.setY(mouseEvent.getScreenY());
+                tooltip.show(getScene().getWindow());
+                rowSeries.fireSeriesEvent(new SeriesEvent(rowSeries, data, SeriesEventType.SELECT_DATA));
+            } else if (MouseEvent.MOUSE_MOVED == TYPE) {
+                tooltip.hide();
+            } else if (MouseEvent.MOUSE_EXITED == TYPE) {
+                tooltip.hide();
+            }
+        };
+        scrollListener     = scrollEvent -> setScrollOffset(scrollOffset - scrollEvent.getDeltaY());
+        seriesListener     = seriesEvent -> {
+            if (SeriesEventType.REDRAW != seriesEvent.getType()) { return; }
+            int row = series.indexOf(seriesEvent.getSeries());
+            if (row < 0) { return; }
+            dirtyRows.set(row);
+            scheduleRedraw();
+        };
+        seriesListListener = change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) { change.getRemoved().forEach(removed -> removed.removeSeriesEventListener(seriesListener)); }
+                if (change.wasAdded()) { change.getAddedSubList().forEach(added -> added.addSeriesEventListener(seriesListener)); }
+            }
+            // Keep the viewport within the rows without drawing the chart twice
+            scrollOffset = clampScrollOffset(scrollOffset);
+            redraw();
+        };
+
+        initGraphics();
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
+            Double.compare(getHeight(), 0.0) <= 0) {
+            if (getPrefWidth() > 0 && getPrefHeight() > 0) {
+                setPrefSize(getPrefWidth(), getPrefHeight());
+            } else {
+                setPrefSize(PREFERRED_WIDTH, PREFERRED_HEIGHT);
+            }
+        }
+
+        canvas = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT);
+        ctx    = canvas.getGraphicsContext2D();
+
+        getChildren().setAll(canvas);
+    }
+
+    private void registerListeners() {
+        widthProperty().addListener(o -> resize());
+        heightProperty().addListener(o -> resize());
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseListener);
+        canvas.addEventHandler(MouseEvent.MOUSE_MOVED, mouseListener);
+        canvas.addEventHandler(MouseEvent.MOUSE_EXITED, mouseListener);
+        canvas.addEventHandler(ScrollEvent.SCROLL, scrollListener);
+        series.forEach(s -> s.addSeriesEventListener(seriesListener));
+        series.addListener(seriesListListener);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override protected double computeMinWidth(final double HEIGHT) { return MINIMUM_WIDTH; }
+    @Override protected double computeMinHeight(final double WIDTH) { return MINIMUM_HEIGHT; }
+    @Override protected double computePrefWidth(final double HEIGHT) { return super.computePrefWidth(HEIGHT); }
+    @Override protected double computePrefHeight(final double WIDTH) { return super.computePrefHeight(WIDTH); }
+    @Override protected double computeMaxWidth(final double HEIGHT) { return MAXIMUM_WIDTH; }
+    @Override protected double computeMaxHeight(final double WIDTH) { return MAXIMUM_HEIGHT; }
+
+    @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
+
+    /**
+     * Returns the list of series, one row per series
+     * @return the list of series, one row per series
+     */
+    public ObservableList<Series<T>> getSeries() { return series; }
+
+    /**
+     * Returns true if the items of the series will be smoothed when drawing
+     * @return true if the items of the series will be smoothed when drawing
+     */
+    public boolean isSmoothed() { return smoothed; }
+    /**
+     * Defines if the items of the series will be smoothed when drawing
+     * @param SMOOTHED
+     */
+    public void setSmoothed(final boolean SMOOTHED) {
+        smoothed = SMOOTHED;
+        redraw();
+    }
+
+    /**
+     * Returns true if the reference for all rows is 0.
+     * Otherwise the first y-value of each series will be
+     * taken as reference value for its row.
+     * @return true if the reference for all rows is 0
+     */
+    public boolean isReferenceZero() { return referenceZero; }
+    /**
+     * Defines if the reference for all rows will be 0 or
+     * the first y-value of each series.
+     * @param IS_ZERO
+     */
+    public void setReferenceZero(final boolean IS_ZERO) {
+        referenceZero = IS_ZERO;
+        redraw();
+    }
+
+    /**
+     * Returns the number of bands used for visualization
+     * @return the number of bands used for visualization
+     */
+    public int getNoOfBands() { return noOfBands; }
+    /**
+     * Defines the number of bands used for visualization
+     * One can define between 1 and 5 bands
+     * @param BANDS
+     */
+    public void setNoOfBands(final int BANDS) {
+        noOfBands = clamp(1, MAX_NO_OF_BANDS, BANDS);
+
+        if (null == aboveColorFrom || null == aboveColorTo) {
+            if (aboveColors.size() < noOfBands) { aboveColors = Helper.createColorVariationsAsList(aboveColors.get(0), noOfBands); }
+        } else {
+            aboveColors = Helper.createColorPalette(aboveColorFrom, aboveColorTo, noOfBands);
+        }
+
+        if (null == belowColorFrom || null == belowColorTo) {
+            if (belowColors.size() < noOfBands) { belowColors = Helper.createColorVariationsAsList(belowColors.get(0), noOfBands); }
+        } else {
+            belowColors = Helper.createColorPalette(belowColorFrom, belowColorTo, noOfBands);
+        }
+
+        redraw();
+    }
+
+    /**
+     * Returns the height of each row
+     * @return the height of each row
+     */
+    public double getRowHeight() { return rowHeight; }
+    /**
+     * Defines the height of each row
+     * @param HEIGHT
+     */
+    public void setRowHeight(final double HEIGHT) {
+        rowHeight = Math.max(MINIMUM_HEIGHT, HEIGHT);
+        scrollOffset = clampScrollOffset(scrollOffset);
+        redraw();
+    }
+
+    /**
+     * Returns the vertical space between two rows
+     * @return the vertical space between two rows
+     */
+    public double getRowSpacing() { return rowSpacing; }
+    /**
+     * Defines the vertical space between two rows
+     * @param SPACING
+     */
+    public void setRowSpacing(final double SPACING) {
+        rowSpacing = Math.max(0, SPACING);
+        scrollOffset = clampScrollOffset(scrollOffset);
+        redraw();
+    }
+
+    /**
+     * Returns the vertical offset of the viewport
+     * @return the vertical offset of the viewport
+     */
+    public double getScrollOffset() { return scrollOffset; }
+    /**
+     * Defines the vertical offset of the viewport, it will be
+     * clamped to the range [0, content height - viewport height]
+     * @param OFFSET
+     */
+    public void setScrollOffset(final double OFFSET) {
+        double offset = clampScrollOffset(OFFSET);
+        if (Double.compare(offset, scrollOffset) == 0) { return; }
+        scrollOffset = offset;
+        drawChart();
+    }
+
+    private double clampScrollOffset(final double OFFSET) { return clamp(0, Math.max(0, getContentHeight() - height), OFFSET); }
+
+    /**
+     * Returns the height of all rows including the spacing between them
+     * @return the height of all rows including the spacing between them
+     */
+    public double getContentHeight() { return series.isEmpty() ? 0 : series.size() * (rowHeight + rowSpacing) - rowSpacing; }
+
+    /**
+     * Returns the index of the row at the given y-position or -1
+     * if there is no row at the given position
+     * @param Y y-position in the coordinate system of the canvas
+     * @return the index of the row at the given y-position or -1
+     */
+    public int getRowAt(final double Y) {
+        double contentY = Y + scrollOffset;
+        if (contentY < 0) { return -1; }
+        int row = (int) (contentY / (rowHeight + rowSpacing));
+        if (row >= series.size() || contentY - row * (rowHeight + rowSpacing) > rowHeight) { return -1; }
+        return row;
+    }
+
+    /**
+     * Makes sure the given row is visible in the viewport
+     * @param ROW
+     */
+    public void scrollToRow(final int ROW) {
+        if (ROW < 0 || ROW >= series.size()) { return; }
+        double top = ROW * (rowHeight + rowSpacing);
+        if (top < scrollOffset) {
+            setScrollOffset(top);
+        } else if (top + rowHeight > scrollOffset + height) {
+            setScrollOffset(top + rowHeight - height);
+        }
+    }
+
+    /**
+     * Returns a copy of the currently used colors for negative values
+     * @return a copy of the currently used colors for negative values
+     */
+    public List<Color> getNegativeColors() { return new ArrayList<>(belowColors); }
+    /**
+     * Creates a color palette for the negative values of all rows
+     * based on the number of bands starting with the FROM_COLOR
+     * and ending with the TO_COLOR
+     * @param FROM_COLOR
+     * @param TO_COLOR
+     */
+    public void setNegativeColors(final Color FROM_COLOR, final Color TO_COLOR) {
+        belowColorFrom = FROM_COLOR;
+        belowColorTo   = TO_COLOR;
+        belowColors    = Helper.createColorPalette(belowColorFrom, belowColorTo, getNoOfBands());
+        drawChart();
+    }
+    public void setNegativeColors(final List<Color> COLORS) {
+        if (COLORS.size() < getNoOfBands()) {
+            Color negativeBaseColor = COLORS.get(0);
+            if (null == negativeBaseColor) { negativeBaseColor = Color.RED; }
+            belowColors = Helper.createColorVariationsAsList(negativeBaseColor, getNoOfBands());
+        } else {
+            belowColors = COLORS;
+        }
+        drawChart();
+    }
+
+    /**
+     * Returns a copy of the currently used colors for positive values
+     * @return a copy of the currently used colors for positive values
+     */
+    public List<Color> getPositiveColors() { return new ArrayList<>(aboveColors); }
+    /**
+     * Creates a color palette for the positive values of all rows
+     * based on the number of bands starting with the FROM_COLOR
+     * and ending with the TO_COLOR
+     * @param FROM_COLOR
+     * @param TO_COLOR
+     */
+    public void setPositiveColors(final Color FROM_COLOR, final Color TO_COLOR) {
+        aboveColorFrom = FROM_COLOR;
+        aboveColorTo   = TO_COLOR;
+        aboveColors    = Helper.createColorPalette(aboveColorFrom, aboveColorTo, getNoOfBands());
+        drawChart();
+    }
+    public void setPositiveColors(final List<Color> COLORS) {
+        if (COLORS.size() < getNoOfBands()) {
+            Color positiveBaseColor = COLORS.get(0);
+            if (null == positiveBaseColor) { positiveBaseColor = Color.BLUE; }
+            aboveColors = Helper.createColorVariationsAsList(positiveBaseColor, getNoOfBands());
+        } else {
+            aboveColors = COLORS;
+        }
+        drawChart();
+    }
+
+    /**
+     * Removes all listeners
+     */
+    public void dispose() {
+        series.removeListener(seriesListListener);
+        series.forEach(s -> s.removeSeriesEventListener(seriesListener));
+        canvas.removeEventHandler(ScrollEvent.SCROLL, scrollListener);
+        canvas.removeEventHandler(MouseEvent.MOUSE_EXITED, mouseListener);
+        canvas.removeEventHandler(MouseEvent.MOUSE_MOVED, mouseListener);
+        canvas.removeEventHandler(MouseEvent.MOUSE_CLICKED, mouseListener);
+    }
+
+    /**
+     * Coalesces all REDRAW events of the series until the next pulse, only the
+     * rows of the changed series will be rendered again. The scheduled redraw will
+     * be skipped if redraw() was called in the meantime.
+     */
+    private void scheduleRedraw() {
+        if (redrawScheduled) { return; }
+        redrawScheduled = true;
+        Platform.runLater(() -> {
+            if (!redrawScheduled) { return; }
+            redrawScheduled = false;
+            if (getMaxNoOfItems() != noOfItems) {
+                redraw();
+            } else {
+                for (int row = dirtyRows.nextSetBit(0) ; row >= 0 && row < series.size() ; row = dirtyRows.nextSetBit(row + 1)) { drawRow(row); }
+            }
+            dirtyRows.clear();
+        });
+    }
+
+    private int getMaxNoOfItems() {
+        int max = 0;
+        for (Series<T> s : series) { max = Math.max(max, s.getNoOfItems()); }
+        return max;
+    }
+
+    /**
+     * Draws all rows that are visible in the current viewport
+     */
+    private void drawChart() {
+        ctx.clearRect(0, 0, width, height);
+        if (series.isEmpty()) { return; }
+        double pitch    = rowHeight + rowSpacing;
+        int    firstRow = (int) (scrollOffset / pitch);
+        int    lastRow  = Math.min(series.size() - 1, (int) ((scrollOffset + height) / pitch));
+        for (int row = firstRow ; row <= lastRow ; row++) { drawRow(row); }
+    }
+
+    /**
+     * Draws the given row if it is visible in the current viewport. The values of
+     * the series will be subdivided into the reusable xs and ys arrays and the bands
+     * will be filled like in HorizonChart, clipped to the bounds of the row.
+     * @param ROW
+     */
+    private void drawRow(final int ROW) {
+        double top = ROW * (rowHeight + rowSpacing) - scrollOffset;
+        if (top >= height || top + rowHeight <= 0) { return; }
+
+        ctx.save();
+        ctx.beginPath();
+        ctx.rect(0, top, width, rowHeight);
+        ctx.clip();
+        ctx.clearRect(0, top, width, rowHeight);
+
+        Series<T>     rowSeries = series.get(ROW);
+        List<Data<T>> items     = rowSeries.getItems();
+        int           size      = items.size();
+        if (size > 1) {
+            if (values.length < size) { values = new double[size]; }
+            for (int i = 0 ; i < size ; i++) { values[i] = items.get(i).getY(); }
+            double refValue = isReferenceZero() ? 0 : values[0];
+            for (int i = 0 ; i < size ; i++) { values[i] -= refValue; }
+
+            // No need to subdivide more than one point per pixel
+            int subDivisions = clamp(1, SUB_DIVISIONS, (int) Math.ceil(scaleX));
+            int capacity     = ((size - 1) * subDivisions) + 1;
+            if (xs.length < capacity) {
+                xs = new double[capacity];
+                ys = new double[capacity];
+            }
+            int noOfPoints = Helper.subdivide(values, size, subDivisions, smoothed, xs, ys);
+
+            double bandWidth = rowSeries.getRangeY() / getNoOfBands();
+            double scaleY    = bandWidth > 0 ? rowHeight / bandWidth : 0;
+            Helper.drawBands(ctx, xs, ys, ys, noOfPoints, 0, scaleX, top + rowHeight, scaleY, getNoOfBands(), bandWidth, aboveColors, belowColors);
+        }
+        ctx.restore();
+    }
+
+    private Data<T> selectDataAt(final Series<T> SERIES, final double MOUSE_X) {
+        if (0 == SERIES.getNoOfItems()) { return null; }
+        int index = clamp(0, SERIES.getNoOfItems() - 1, (int) Math.round(MOUSE_X / scaleX));
+        return SERIES.getItems().get(index);
+    }
+
+    private String createTooltipText(final Series<T> SERIES, final Data<T> DATA) {
+        StringBuilder textBuilder = new StringBuilder();
+        textBuilder.append("Series: ");
+        if (null == SERIES.getName() || SERIES.getName().isEmpty()) {
+            textBuilder.append("-");
+        } else {
+            textBuilder.append(SERIES.getName());
+        }
+        textBuilder.append("\nName  : ");
+        if (null == DATA.getName() || DATA.getName().isEmpty()) {
+            textBuilder.append("-");
+        } else {
+            textBuilder.append(DATA.getName());
+        }
+        textBuilder.append("\nX     : ");
+        if (null == DATA.getX()) {
+            textBuilder.append("-");
+        } else {
+            textBuilder.append(DATA.getX().toString());
+        }
+        textBuilder.append("\nY     : ").append(Double.toString(DATA.getY()));
+        return textBuilder.toString();
+    }
+
+
+    // ******************** Resizing ******************************************
+    private void resize() {
+        width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
+        height = getHeight() - getInsets().getTop() - getInsets().getBottom();
+
+        if (width > 0 && height > 0) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            canvas.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
+
+            scrollOffset = clampScrollOffset(scrollOffset);
+            redraw();
+        }
+    }
+
+    /**
+     * Redraws all visible rows immediately, REDRAW events of the series
+     * will be coalesced and only redraw the rows of the changed series
+     */
+    public void redraw() {
+        redrawScheduled = false;
+        dirtyRows.clear();
+        // All rows share the x-axis which is defined by the series with the most items
+        noOfItems = getMaxNoOfItems();
+        scaleX    = noOfItems > 1 ? width / (noOfItems - 1) : 1;
+        drawChart();
+    }
+}
@@ -22,13 +22,14 @@ import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 
 public class Series<T> {
@@ -39,6 +40,11 @@ public class Series<T> {
     private ObjectProperty<Color>                     color;
     private ObservableList<Data<T>>                   items;
     private CopyOnWriteArrayList<SeriesEventListener> listeners;
+    private MonotonicDeque                            minDeque;
+    private MonotonicDeque                            maxDeque;
+    private long                                      headSequence;
+    private boolean                                   extremaValid;
+    private int                                       updateDepth;
 
 
     // ******************** Constructors **************************************
@@ -62,11 +68,53 @@ public class Series<T> {
         _color    = COLOR;
         items     = FXCollections.observableArrayList();
         listeners = new CopyOnWriteArrayList<>();
+        minDeque  = new MonotonicDeque(false);
+        maxDeque  = new MonotonicDeque(true);
+
+        registerListeners();
 
         if (null != ITEMS) { items.setAll(ITEMS); }
     }
 
 
+    // ******************** Initialization ************************************
+    private void registerListeners() {
+        items.addListener((ListChangeListener<Data<T>>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) { change.getRemoved().forEach(item -> item.removeSeries(Series.this)); }
+                if (change.wasAdded()) { change.getAddedSubList().forEach(item -> item.addSeries(Series.this)); }
+                if (!extremaValid) { continue; }
+                int from = change.getFrom();
+                if (change.wasPermutated() || change.wasUpdated() || change.wasReplaced()) {
+                    extremaValid = false;
+                } else if (change.wasRemoved()) {
+                    // Removing from the front (sliding window) only drops the head of the deques
+                    if (0 == from) {
+                        for (int i = 0 ; i < change.getRemovedSize() ; i++) {
+                            minDeque.pollFirst(headSequence);
+                            maxDeque.pollFirst(headSequence);
+                            headSequence++;
+                        }
+                    } else {
+                        extremaValid = false;
+                    }
+                } else if (change.wasAdded()) {
+                    // Adding to the end only pushes to the tail of the deques
+                    if (change.getTo() == items.size()) {
+                        for (int i = from ; i < change.getTo() ; i++) {
+                            double y = items.get(i).getY();
+                            minDeque.add(headSequence + i, y);
+                            maxDeque.add(headSequence + i, y);
+                        }
+                    } else {
+                        extremaValid = false;
+                    }
+                }
+            }
+        });
+    }
+
+
     // ******************** Methods *******************************************
     public ObservableList<Data<T>> getItems() { return items; }
     public void setItems(final List<Data<T>> ITEMS) { items.setAll(ITEMS); }
@@ -115,12 +163,81 @@ public class Series<T> {
 
     public int getNoOfItems() { return items.size(); }
 
-    public double getMinY() { return items.stream().min(Comparator.comparingDouble(Data::getY)).get().getY(); }
-    public double getMaxY() { return items.stream().max(Comparator.comparingDouble(Data::getY)).get().getY(); }
+    /**
+     * Returns the min y-value of all items or 0 if the series is empty.
+     * The extrema are tracked incrementally, appending items and removing
+     * items from the front (sliding window) is O(1) amortized, all other
+     * changes (including changes of the y-value of an item) lead to one
+     * recalculation on the next call.
+     * @return the min y-value of all items or 0 if the series is empty
+     */
+    public double getMinY() {
+        validateExtrema();
+        return minDeque.isEmpty() ? 0 : minDeque.peekFirst();
+    }
+    /**
+     * Returns the max y-value of all items or 0 if the series is empty
+     * @return the max y-value of all items or 0 if the series is empty
+     */
+    public double getMaxY() {
+        validateExtrema();
+        return maxDeque.isEmpty() ? 0 : maxDeque.peekFirst();
+    }
     public double getRangeY() { return getMaxY() - getMinY(); }
 
+    /**
+     * Fires a REDRAW event, call this after changing the y-value
+     * of items that are already part of the series. The min and max
+     * stay valid, changes of the y-values are reported by the items to
+     * every series that contains them.
+     * HorizonChart and HorizonChartGrid coalesce the REDRAW events and
+     * redraw once on the FX application thread afterwards, call redraw()
+     * of the chart if it has to be redrawn synchronously.
+     */
     public void refresh() { fireSeriesEvent(REFRESH); }
 
+    /**
+     * Called by the items of the series if their y-value changed, the min and
+     * max will be recalculated on the next call of getMinY() or getMaxY()
+     */
+    void invalidateExtrema() { extremaValid = false; }
+
+    /**
+     * Executes the given mutations (e.g. series.update(s -> { s.setName("A"); s.getItems().add(data); }))
+     * and fires only one REDRAW event after all of them have been applied. Calls can be nested,
+     * the event will be fired when the outermost update has finished. If UPDATE throws an
+     * exception no event will be fired (the mutations applied so far are not rolled back).
+     * @param UPDATE
+     */
+    public void update(final Consumer<Series<T>> UPDATE) {
+        updateDepth++;
+        try {
+            UPDATE.accept(Series.this);
+        } finally {
+            updateDepth--;
+        }
+        if (0 == updateDepth) { refresh(); }
+    }
+
+    /**
+     * Returns true while an update() is in progress
+     * @return true while an update() is in progress
+     */
+    public boolean isUpdating() { return updateDepth > 0; }
+
+    private void validateExtrema() {
+        if (extremaValid) { return; }
+        minDeque.clear();
+        maxDeque.clear();
+        headSequence = 0;
+        for (int i = 0, size = items.size() ; i < size ; i++) {
+            double y = items.get(i).getY();
+            minDeque.add(i, y);
+            maxDeque.add(i, y);
+        }
+        extremaValid = true;
+    }
+
     /**
      * Returns all items in json format
      * @return all items in json format
@@ -142,6 +259,73 @@ public class Series<T> {
     public void removeSeriesEventListener(final SeriesEventListener LISTENER) { if (listeners.contains(LISTENER)) listeners.remove(LISTENER); }
 
     public void fireSeriesEvent(final SeriesEvent EVENT) {
+        // REDRAW events will be replaced by the one fired at the end of update()
+        if (updateDepth > 0 && SeriesEventType.REDRAW == EVENT.getType()) { return; }
         for (SeriesEventListener listener : listeners) { listener.onSeriesEvent(EVENT); }
     }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Primitive deque of (sequence, value) pairs with monotonic values, the
+     * first entry always contains the min (or max) of all values that have
+     * been added and not been removed from the front
+     */
+    private static class MonotonicDeque {
+        private final boolean  max;
+        private       long[]   sequences;
+        private       double[] values;
+        private       int      head;
+        private       int      size;
+
+
+        MonotonicDeque(final boolean MAX) {
+            max       = MAX;
+            sequences = new long[16];
+            values    = new double[16];
+        }
+
+
+        boolean isEmpty() { return 0 == size; }
+
+        double peekFirst() { return values[head]; }
+
+        void add(final long SEQUENCE, final double VALUE) {
+            // Remove all entries from the tail that can never become the extremum again
+            while (size > 0) {
+                double last = values[(head + size - 1) % values.length];
+                if (max ? last > VALUE : last < VALUE) { break; }
+                size--;
+            }
+            if (size == values.length) { grow(); }
+            int tail = (head + size) % values.length;
+            sequences[tail] = SEQUENCE;
+            values[tail]    = VALUE;
+            size++;
+        }
+
+        void pollFirst(final long SEQUENCE) {
+            if (size > 0 && sequences[head] == SEQUENCE) {
+                head = (head + 1) % values.length;
+                size--;
+            }
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private void grow() {
+            long[]   newSequences = new long[values.length * 2];
+            double[] newValues    = new double[values.length * 2];
+            for (int i = 0 ; i < size ; i++) {
+                newSequences[i] = sequences[(head + i) % values.length];
+                newValues[i]    = values[(head + i) % values.length];
+            }
+            sequences = newSequences;
+            values    = newValues;
+            head      = 0;
+        }
+    }
 }
@@ -22,81 +22,176 @@ import eu.hansolo.fx.pathgradient.shapes.Path;
 import eu.hansolo.fx.pathgradient.tools.GradientLookup;
 import eu.hansolo.fx.pathgradient.tools.PathTool;
 import eu.hansolo.fx.pathgradient.tools.Point;
+import eu.hansolo.fx.pathgradient.tools.SampledPath;
+import eu.hansolo.fx.pathgradient.transform.BaseTransform;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 
 public class PathGradient {
+    public enum Quality {
+        BEST(0, 0),                // one draw call per sample
+        HIGH(1.0 / 255.0, 1.0),    // at most one colour change per pixel
+        MEDIUM(2.0 / 255.0, 2.0),
+        FAST(4.0 / 255.0, 4.0);
+
+        public final double COLOR_DELTA;
+        public final double MIN_BAND_LENGTH;
+
+        Quality(final double COLOR_DELTA, final double MIN_BAND_LENGTH) {
+            this.COLOR_DELTA     = COLOR_DELTA;
+            this.MIN_BAND_LENGTH = MIN_BAND_LENGTH;
+        }
+    }
+    private static final double                        PRECISION          = 0.1;
+    private static final int                           DEFAULT_CACHE_SIZE = 32;
+    private static       int                           cacheSize          = DEFAULT_CACHE_SIZE;
+    private static final Map<CacheKey, SampledPath>    CACHE              = new LinkedHashMap<CacheKey, SampledPath>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<CacheKey, SampledPath> ELDEST) { return size() > cacheSize; }
+    };
+
 
     public static void strokePathWithGradient(final GraphicsContext CTX, final Path PATH, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP) {
-        Map<Point, Double> samples = samplePath(PATH, 0.1);
-        draw(CTX, samples, GRADIENT_LOOKUP, WIDTH, LINE_CAP);
+        strokePathWithGradient(CTX, PATH, GRADIENT_LOOKUP, WIDTH, LINE_CAP, Quality.BEST);
+    }
+    public static void strokePathWithGradient(final GraphicsContext CTX, final Path PATH, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP, final Quality QUALITY) {
+        strokePathWithGradient(CTX, PATH, GRADIENT_LOOKUP, WIDTH, LINE_CAP, QUALITY.COLOR_DELTA, QUALITY.MIN_BAND_LENGTH);
+    }
+    /**
+     * Strokes the given path with the colors of the given gradient lookup.
+     * Consecutive samples are merged into one polyline (band) as long as the
+     * band is shorter than MIN_BAND_LENGTH or the color does not differ by
+     * more than COLOR_DELTA (0 - 1) in any channel from the color at the
+     * start of the band.
+     */
+    public static void strokePathWithGradient(final GraphicsContext CTX, final Path PATH, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP,
+                                              final double COLOR_DELTA, final double MIN_BAND_LENGTH) {
+        draw(CTX, samplePath(PATH), GRADIENT_LOOKUP, WIDTH, LINE_CAP, COLOR_DELTA, MIN_BAND_LENGTH);
+    }
+
+    /**
+     * Strokes an already sampled path with the given gradient lookup. Use this
+     * in combination with samplePath() if the same geometry is stroked again and
+     * again with different lookups (e.g. in an animation) because in this case
+     * only the colors have to be assigned to the samples.
+     */
+    public static void strokeSampledPath(final GraphicsContext CTX, final SampledPath SAMPLED_PATH, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP) {
+        strokeSampledPath(CTX, SAMPLED_PATH, GRADIENT_LOOKUP, WIDTH, LINE_CAP, Quality.BEST);
+    }
+    public static void strokeSampledPath(final GraphicsContext CTX, final SampledPath SAMPLED_PATH, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP, final Quality QUALITY) {
+        draw(CTX, SAMPLED_PATH, GRADIENT_LOOKUP, WIDTH, LINE_CAP, QUALITY.COLOR_DELTA, QUALITY.MIN_BAND_LENGTH);
+    }
+
+    public static SampledPath samplePath(final Path PATH) { return samplePath(PATH, null); }
+    /**
+     * Returns the samples of the given path after applying the given transform.
+     * The result is kept in a bounded LRU cache that is keyed by a snapshot of
+     * the path geometry and the transform, so modifying the path afterwards
+     * leads to a new sampling on the next call.
+     */
+    public static SampledPath samplePath(final Path PATH, final BaseTransform TRANSFORM) {
+        CacheKey key = new CacheKey(PATH, TRANSFORM);
+        synchronized (CACHE) {
+            SampledPath sampledPath = CACHE.get(key);
+            if (null != sampledPath) { return sampledPath; }
+        }
+        SampledPath sampledPath = new PathTool(key.path, key.transform).sample(PRECISION);
+        synchronized (CACHE) { CACHE.put(key, sampledPath); }
+        return sampledPath;
     }
 
-    private static Map<Point, Double> samplePath(final Path PATH, final double PRECISION) {
-        PathTool           pathTool         = new PathTool(PATH);
-        double             length           = pathTool.getLengthOfPath();
-        Map<Point, Double> pointFractionMap = new LinkedHashMap<>();
-        for (double i = 0 ; i < length ; i += PRECISION) {
-            Point p = pathTool.getPointAtLength(i);
-            pointFractionMap.put(p, (i / length));
+    public static int getCacheSize() { return cacheSize; }
+    public static void setCacheSize(final int SIZE) {
+        synchronized (CACHE) {
+            cacheSize = Math.max(0, SIZE);
+            Iterator<CacheKey> iterator = CACHE.keySet().iterator();
+            while (CACHE.size() > cacheSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
         }
-        pointFractionMap.put(pathTool.getSegmentPointAtLength(length), 1.0);
-        return pointFractionMap;
     }
 
-    private static void draw(final GraphicsContext CTX, final Map<Point, Double> SAMPLES, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP) {
+    public static void clearCache() {
+        synchronized (CACHE) { CACHE.clear(); }
+    }
+
+    private static void draw(final GraphicsContext CTX, final SampledPath SAMPLES, final GradientLookup GRADIENT_LOOKUP, final double WIDTH, final StrokeLineCap LINE_CAP,
+                             final double COLOR_DELTA, final double MIN_BAND_LENGTH) {
+        if (SAMPLES.size() < 2) { return; }
         CTX.save();
         CTX.setLineCap(LINE_CAP);
         CTX.setLineJoin(StrokeLineJoin.ROUND);
-        List<Point> points = new ArrayList<>(SAMPLES.keySet());
-        Point lastPoint = points.get(0);
+        CTX.setLineWidth(WIDTH);
+
+        int    bandStart  = 0;
+        double bandLength = 0;
+        Color  bandColor  = GRADIENT_LOOKUP.getColorAt(SAMPLES.getFraction(1));
         for (int i = 1 ; i < SAMPLES.size() ; i++) {
-            Point p0 = points.get(i);
-
-            CTX.setLineWidth(WIDTH);
-            CTX.setStroke(GRADIENT_LOOKUP.getColorAt(SAMPLES.get(p0)));
-            CTX.strokeLine(lastPoint.getX(), lastPoint.getY(), p0.getX(), p0.getY());
-
-
-            /*
-            double halfLineWidth = WIDTH / 2;
-            CTX.setLineWidth(3);
-            CTX.setStroke(GRADIENT_LOOKUP.getColorAt(SAMPLES.get(p0)));
-            double angle = Math.toDegrees(Math.atan2(p0.getY() - lastPoint.getY(), p0.getX() - lastPoint.getX()));
-            double segmentLength = Point.distance(lastPoint, p0);
-            double x = lastPoint.getX();
-            double y = lastPoint.getY();
-            double step = segmentLength / 1;
-            for (int l = 0 ; l < segmentLength ; l += step) {
-                x += step * Math.cos(Math.toRadians(angle));
-                y += step * Math.sin(Math.toRadians(angle));
-                double x0 = x + halfLineWidth * Math.cos(Math.toRadians(angle + 90));
-                double y0 = y + halfLineWidth * Math.sin(Math.toRadians(angle + 90));
-                double x1 = x + halfLineWidth * Math.cos(Math.toRadians(angle - 90));
-                double y1 = y + halfLineWidth * Math.sin(Math.toRadians(angle - 90));
-                CTX.strokeLine(x0, y0, x1, y1);
+            bandLength += Point.distance(SAMPLES.getX(i - 1), SAMPLES.getY(i - 1), SAMPLES.getX(i), SAMPLES.getY(i));
+            if (i == SAMPLES.size() - 1) {
+                strokeBand(CTX, SAMPLES, bandStart, i, bandColor);
+            } else if (bandLength >= MIN_BAND_LENGTH) {
+                Color color = GRADIENT_LOOKUP.getColorAt(SAMPLES.getFraction(i + 1));
+                if (isDifferent(bandColor, color, COLOR_DELTA)) {
+                    strokeBand(CTX, SAMPLES, bandStart, i, bandColor);
+                    bandStart  = i;
+                    bandLength = 0;
+                    bandColor  = color;
+                }
             }
-            */
+        }
+        CTX.restore();
+    }
 
-            /*
-            CTX.setLineWidth(WIDTH);
-            CTX.setStroke(GRADIENT_LOOKUP.getColorAt(SAMPLES.get(p0)));
+    private static void strokeBand(final GraphicsContext CTX, final SampledPath SAMPLES, final int FROM, final int TO, final Color COLOR) {
+        CTX.setStroke(COLOR);
+        if (TO - FROM == 1) {
+            CTX.strokeLine(SAMPLES.getX(FROM), SAMPLES.getY(FROM), SAMPLES.getX(TO), SAMPLES.getY(TO));
+        } else {
             CTX.beginPath();
-            CTX.moveTo(lastPoint.getX(), lastPoint.getY());
-            CTX.lineTo(p0.getX(), p0.getY());
-            CTX.closePath();
+            CTX.moveTo(SAMPLES.getX(FROM), SAMPLES.getY(FROM));
+            for (int i = FROM + 1 ; i <= TO ; i++) { CTX.lineTo(SAMPLES.getX(i), SAMPLES.getY(i)); }
             CTX.stroke();
-            */
+        }
+    }
+
+    private static boolean isDifferent(final Color COLOR_1, final Color COLOR_2, final double DELTA) {
+        return Math.abs(COLOR_1.getRed()     - COLOR_2.getRed())     > DELTA ||
+               Math.abs(COLOR_1.getGreen()   - COLOR_2.getGreen())   > DELTA ||
+               Math.abs(COLOR_1.getBlue()    - COLOR_2.getBlue())    > DELTA ||
+               Math.abs(COLOR_1.getOpacity() - COLOR_2.getOpacity()) > DELTA;
+    }
 
-            lastPoint = p0;
+
+    // ******************** Inner Classes *************************************
+    private static class CacheKey {
+        private final Path          path;
+        private final BaseTransform transform;
+        private final int           hash;
+
+
+        CacheKey(final Path PATH, final BaseTransform TRANSFORM) {
+            path      = PATH.copy();
+            transform = null == TRANSFORM || TRANSFORM.isIdentity() ? null : TRANSFORM.copy();
+            hash      = 31 * path.hashCode() + (null == transform ? 0 : transform.hashCode());
         }
-        CTX.restore();
+
+        @Override public boolean equals(final Object OBJECT) {
+            if (OBJECT == this) { return true; }
+            if (!(OBJECT instanceof CacheKey)) { return false; }
+            CacheKey key = (CacheKey) OBJECT;
+            return hash == key.hash &&
+                   path.equals(key.path) &&
+                   (null == transform ? null == key.transform : transform.equals(key.transform));
+        }
+
+        @Override public int hashCode() { return hash; }
     }
 }
@@ -850,6 +850,19 @@ public class Path extends Shape {
         return false;
     }
 
+    @Override public int hashCode() {
+        int hash = windingRule.hashCode();
+        for (int i = 0; i < numTypes; i++) {
+            hash = 31 * hash + pointTypes[i];
+        }
+        for (int i = 0; i < numCoords; i++) {
+            // -0.0 and 0.0 are equal in equals() and therefore need the same hash
+            long bits = 0.0 == doubleCoords[i] ? 0L : Double.doubleToLongBits(doubleCoords[i]);
+            hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+        }
+        return hash;
+    }
+
     public static boolean contains(final PathIterator PATH_ITERATOR, final double X, final double Y) {
         if (X * 0 + Y * 0 == 0) {
             int mask  = (PATH_ITERATOR.getWindingRule() == WindingRule.WIND_NON_ZERO ? -1 : 1);
@@ -22,21 +22,40 @@ import eu.hansolo.fx.pathgradient.shapes.Path.WindingRule;
 import eu.hansolo.fx.pathgradient.shapes.PathIterator;
 import eu.hansolo.fx.pathgradient.shapes.Shape;
 import eu.hansolo.fx.pathgradient.transform.Affine;
+import eu.hansolo.fx.pathgradient.transform.BaseTransform;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
 public class PathTool {
-    protected Shape             path;
+    private static final double FLATNESS = 0.01;
+    protected Shape         path;
+    protected BaseTransform transform;
+    protected int           noOfSegments;
+    protected int[]         segmentTypes;
+    protected double[]      xs;
+    protected double[]      ys;
+    protected double[]      lengths;
+    protected int[]         segmentIndexes;
+    protected double        pathLength;
+    protected boolean       initialized;
+    /**
+     * @deprecated The flattened path is kept in the arrays segmentTypes, xs, ys and lengths,
+     * this is a read-only view on them that creates the PathSegment objects on access.
+     */
+    @Deprecated
     protected List<PathSegment> segments;
-    protected int[]             segmentIndexes;
-    protected double            pathLength;
-    protected boolean           initialized;
 
 
     public PathTool(Shape path) {
-        setPath(path);
+        this(path, null);
+    }
+    public PathTool(final Shape PATH, final BaseTransform TRANSFORM) {
+        transform = null == TRANSFORM ? new Affine() : TRANSFORM;
+        setPath(PATH);
     }
 
     public Shape getPath() {
@@ -48,14 +67,17 @@ public class PathTool {
     }
 
     private void init() {
-        pathLength = 0;
-
-        PathIterator        pathIterator        = path.getPathIterator(new Affine());
+        pathLength   = 0;
+        noOfSegments = 0;
+        segmentTypes = new int[20];
+        xs           = new double[20];
+        ys           = new double[20];
+        lengths      = new double[20];
+
+        PathIterator        pathIterator        = path.getPathIterator(transform);
         SegmentPathIterator segmentPathIterator = new SegmentPathIterator();
-        segments = new ArrayList(20);
         List     indexes   = new ArrayList(20);
         int      index     = 0;
-        int      origIndex = -1;
         double   lastMoveX = 0;
         double   lastMoveY = 0;
         double   currentX  = 0;
@@ -63,15 +85,14 @@ public class PathTool {
         double[] seg       = new double[6];
         int      segType;
 
-        segments.add(new PathSegment(PathIterator.MOVE_TO, 0, 0, 0, origIndex));
+        addSegment(PathIterator.MOVE_TO, 0, 0);
 
         while (!pathIterator.isDone()) {
-            origIndex++;
             indexes.add(new Integer(index));
             segType = pathIterator.currentSegment(seg);
             switch (segType) {
                 case PathIterator.MOVE_TO:
-                    segments.add(new PathSegment(segType, seg[0], seg[1], pathLength, origIndex));
+                    addSegment(segType, seg[0], seg[1]);
                     currentX  = seg[0];
                     currentY  = seg[1];
                     lastMoveX = currentX;
@@ -81,7 +102,7 @@ public class PathTool {
                     break;
                 case PathIterator.LINE_TO:
                     pathLength += Point.distance(currentX, currentY, seg[0], seg[1]);
-                    segments.add(new PathSegment(segType, seg[0], seg[1], pathLength, origIndex));
+                    addSegment(segType, seg[0], seg[1]);
                     currentX = seg[0];
                     currentY = seg[1];
                     index++;
@@ -89,7 +110,7 @@ public class PathTool {
                     break;
                 case PathIterator.CLOSE:
                     pathLength += Point.distance(currentX, currentY, lastMoveX, lastMoveY);
-                    segments.add(new PathSegment(PathIterator.LINE_TO, lastMoveX, lastMoveY, pathLength, origIndex));
+                    addSegment(PathIterator.LINE_TO, lastMoveX, lastMoveY);
                     currentX = lastMoveX;
                     currentY = lastMoveY;
                     index++;
@@ -97,12 +118,12 @@ public class PathTool {
                     break;
                 default:
                     segmentPathIterator.setPathIterator(pathIterator, currentX, currentY);
-                    FlatteningPathIterator fpi = new FlatteningPathIterator(segmentPathIterator, 0.01);
+                    FlatteningPathIterator fpi = new FlatteningPathIterator(segmentPathIterator, FLATNESS);
                     while (!fpi.isDone()) {
                         segType = fpi.currentSegment(seg);
                         if (segType == PathIterator.LINE_TO) {
                             pathLength += Point.distance(currentX, currentY, seg[0], seg[1]);
-                            segments.add(new PathSegment(segType, seg[0], seg[1], pathLength, origIndex));
+                            addSegment(segType, seg[0], seg[1]);
                             currentX = seg[0];
                             currentY = seg[1];
                             index++;
@@ -115,46 +136,81 @@ public class PathTool {
         for (int i = 0; i < segmentIndexes.length; i++) {
             segmentIndexes[i] = ((Integer) indexes.get(i)).intValue();
         }
+        segments    = new SegmentList();
         initialized = true;
     }
 
+    private void addSegment(final int SEGMENT_TYPE, final double X, final double Y) {
+        if (noOfSegments == xs.length) {
+            int newSize  = noOfSegments << 1;
+            segmentTypes = Arrays.copyOf(segmentTypes, newSize);
+            xs           = Arrays.copyOf(xs, newSize);
+            ys           = Arrays.copyOf(ys, newSize);
+            lengths      = Arrays.copyOf(lengths, newSize);
+        }
+        segmentTypes[noOfSegments] = SEGMENT_TYPE;
+        xs[noOfSegments]           = X;
+        ys[noOfSegments]           = Y;
+        lengths[noOfSegments]      = pathLength;
+        noOfSegments++;
+    }
+
+    /**
+     * Returns the index of the first LINE_TO segment whose cumulative length
+     * is >= the given length (binary search over the length table) or -1 if
+     * the length is outside of the path.
+     */
     private int findUpperIndex(final double LENGTH) {
         if (!initialized) { init(); }
 
-        if (LENGTH < 0 || LENGTH > pathLength) { return -1; }
+        if (LENGTH < 0 || LENGTH > pathLength || noOfSegments < 2) { return -1; }
 
         int lowerBound = 0;
-        int upperBound = segments.size() - 1;
+        int upperBound = noOfSegments - 1;
 
         while (lowerBound != upperBound) {
-            int curr = (lowerBound + upperBound) >> 1;
-            PathSegment pathSegment = segments.get(curr);
-            if (pathSegment.getLength() >= LENGTH) {
+            int curr = (lowerBound + upperBound) >>> 1;
+            if (lengths[curr] >= LENGTH) {
                 upperBound = curr;
             } else {
                 lowerBound = curr + 1;
             }
         }
-        for (;;) {
-            PathSegment pathSegment = segments.get(upperBound);
-            if (pathSegment.getSegmentType() != PathIterator.MOVE_TO || upperBound == segments.size() - 1) {
-                break;
-            }
-            upperBound++;
-        }
+        return skipMoveTo(upperBound);
+    }
 
-        int upperIndex   = -1;
-        int currentIndex = 0;
-        int numSegments  = segments.size();
+    private int skipMoveTo(final int INDEX) {
+        int index = Math.max(1, INDEX);
+        while (index < noOfSegments - 1 && segmentTypes[index] == PathIterator.MOVE_TO) { index++; }
+        return segmentTypes[index] == PathIterator.MOVE_TO ? -1 : index;
+    }
 
-        while (upperIndex <= 0 && currentIndex < numSegments) {
-            PathSegment ps = segments.get(currentIndex);
-            if (ps.getLength() >= LENGTH && ps.getSegmentType() != PathIterator.MOVE_TO) {
-                upperIndex = currentIndex;
+    /**
+     * Returns the index of the segment of the original path the flattened segment
+     * at the given index belongs to (-1 for the leading MOVE_TO).
+     */
+    private int getOriginalIndex(final int INDEX) {
+        int lowerBound = -1;
+        int upperBound = segmentIndexes.length - 1;
+        while (lowerBound != upperBound) {
+            int curr = (lowerBound + upperBound + 1) >> 1;
+            if (segmentIndexes[curr] <= INDEX - 1) {
+                lowerBound = curr;
+            } else {
+                upperBound = curr - 1;
             }
-            currentIndex++;
         }
-        return upperIndex;
+        return lowerBound;
+    }
+
+    /**
+     * @deprecated The flattened segments are only available as a read-only view,
+     * use getPointAtLength(), getAngleAtLength() or sample() instead.
+     */
+    @Deprecated
+    protected List<PathSegment> getSegments() {
+        if (!initialized) { init(); }
+        return segments;
     }
 
     public double getLengthOfPath() {
@@ -163,102 +219,109 @@ public class PathTool {
     }
 
     public Point getSegmentPointAtLength(final double LENGTH) {
+        return getPointAtLength(LENGTH);
+    }
+
+    public Point getPointAtLength(final double LENGTH) {
         int upperIndex = findUpperIndex(LENGTH);
         if (upperIndex == -1) { return null; }
 
-        PathSegment upper = segments.get(upperIndex);
+        int    lowerIndex    = upperIndex - 1;
+        double segmentLength = lengths[upperIndex] - lengths[lowerIndex];
+        double t             = segmentLength > 0 ? (LENGTH - lengths[lowerIndex]) / segmentLength : 0;
 
-        if (upperIndex == 0) { return new Point(upper.getX(), upper.getY()); }
+        return new Point(xs[lowerIndex] + (xs[upperIndex] - xs[lowerIndex]) * t,
+                         ys[lowerIndex] + (ys[upperIndex] - ys[lowerIndex]) * t);
+    }
 
-        PathSegment lower = segments.get(upperIndex - 1);
+    /**
+     * Returns the angle in degrees of the tangent at the given length
+     * or NaN if the length is outside of the path.
+     */
+    public double getAngleAtLength(final double LENGTH) {
+        int upperIndex = findUpperIndex(LENGTH);
+        if (upperIndex == -1) { return Double.NaN; }
 
-        double offset = LENGTH - lower.getLength();
+        int lowerIndex = upperIndex - 1;
+        return Math.toDegrees(Math.atan2(ys[upperIndex] - ys[lowerIndex], xs[upperIndex] - xs[lowerIndex]));
+    }
 
-        double theta = Math.atan2(upper.getY() - lower.getY(), upper.getX() - lower.getX());
+    /**
+     * Samples the path every STEP pixels in one linear pass over the
+     * length table. The last sample is always the end point of the path.
+     */
+    public SampledPath sample(final double STEP) {
+        if (!initialized) { init(); }
+        if (STEP <= 0) { throw new IllegalArgumentException("Step must be larger than 0"); }
 
-        double xPoint = (lower.getX() + offset * Math.cos(theta));
-        double yPoint = (lower.getY() + offset * Math.sin(theta));
+        int      upperIndex  = noOfSegments < 2 ? -1 : skipMoveTo(1);
+        int      noOfSamples = upperIndex == -1 ? 0 : (int) Math.ceil(pathLength / STEP) + 1;
+        double[] sampleXs    = new double[noOfSamples];
+        double[] sampleYs    = new double[noOfSamples];
+        double[] fractions   = new double[noOfSamples];
 
-        return new Point(xPoint, yPoint);
-    }
+        for (int i = 0 ; i < noOfSamples ; i++) {
+            double length = i == noOfSamples - 1 ? pathLength : Math.min(i * STEP, pathLength);
+            while (upperIndex < noOfSegments - 1 && (lengths[upperIndex] < length || segmentTypes[upperIndex] == PathIterator.MOVE_TO)) { upperIndex++; }
 
-    public Point getPointAtLength(final double LENGTH) {
-        PathIterator        pathIterator        = path.getPathIterator(new Affine());
-        SegmentPathIterator segmentPathIterator = new SegmentPathIterator();
-        double              pathLength          = 0;
-        double              lastMoveX           = 0;
-        double              lastMoveY           = 0;
-        double              currentX            = 0;
-        double              currentY            = 0;
-        double[]            seg                 = new double[6];
-        int                 segType;
-        double              lastX;
-        double              lastY;
-
-        while (!pathIterator.isDone()) {
-            segType = pathIterator.currentSegment(seg);
-            switch (segType) {
-                case PathIterator.MOVE_TO:
-                    lastX     = currentX;
-                    lastY     = currentY;
-                    currentX  = seg[0];
-                    currentY  = seg[1];
-                    lastMoveX = currentX;
-                    lastMoveY = currentY;
-                    pathIterator.next();
-                    if (pathLength > LENGTH) { return new Point(lastX, lastY); }
-                    break;
-                case PathIterator.LINE_TO:
-                    double segmentLength = Point.distance(currentX, currentY, seg[0], seg[1]);
-                    double angle         = Math.atan2(seg[1] - currentY, seg[0] - currentX);
-                    double step          = segmentLength * 0.001;
-                    for (double i = 0 ; i < segmentLength ; i += step) {
-                        lastX = currentX;
-                        lastY = currentY;
-                        currentX += step * Math.cos(angle);
-                        currentY += step * Math.sin(angle);
-                        pathLength += step;
-                        if (Double.compare(pathLength, LENGTH) >= 0) { return new Point(lastX, lastY); }
-                    }
+            int    lowerIndex    = upperIndex - 1;
+            double segmentLength = lengths[upperIndex] - lengths[lowerIndex];
+            double t             = segmentLength > 0 ? Helper.clamp(0.0, 1.0, (length - lengths[lowerIndex]) / segmentLength) : 0;
 
-                    //lastX    = currentX;
-                    //lastY    = currentY;
-                    //currentX = seg[0];
-                    //currentY = seg[1];
-                    pathIterator.next();
-                    //if (pathLength > LENGTH) { return new Point(lastX, lastY); }
-                    break;
-                case PathIterator.CLOSE:
-                    pathLength += Point.distance(currentX, currentY, lastMoveX, lastMoveY);
-                    lastX      = currentX;
-                    lastY      = currentY;
-                    currentX   = lastMoveX;
-                    currentY   = lastMoveY;
-                    pathIterator.next();
-                    if (pathLength > LENGTH) { return new Point(lastX, lastY); }
-                    break;
-                default:
-                    segmentPathIterator.setPathIterator(pathIterator, currentX, currentY);
-                    FlatteningPathIterator fpi = new FlatteningPathIterator(segmentPathIterator, 0.001);
-                    while (!fpi.isDone()) {
-                        segType = fpi.currentSegment(seg);
-                        if (segType == PathIterator.LINE_TO) {
-                            pathLength += Point.distance(currentX, currentY, seg[0], seg[1]);
-                            lastX      = currentX;
-                            lastY      = currentY;
-                            currentX   = seg[0];
-                            currentY   = seg[1];
-                            if (pathLength > LENGTH) { return new Point(lastX, lastY); }
-                        }
-                        fpi.next();
-                    }
-            }
+            sampleXs[i]  = xs[lowerIndex] + (xs[upperIndex] - xs[lowerIndex]) * t;
+            sampleYs[i]  = ys[lowerIndex] + (ys[upperIndex] - ys[lowerIndex]) * t;
+            fractions[i] = pathLength > 0 ? length / pathLength : 1.0;
         }
-        return null;
+        return new SampledPath(sampleXs, sampleYs, fractions);
     }
 
 
     // ******************** Inner Classes *************************************
+    private class SegmentList extends AbstractList<PathSegment> {
+        @Override public PathSegment get(final int INDEX) {
+            if (INDEX < 0 || INDEX >= noOfSegments) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + noOfSegments); }
+            return new PathSegment(segmentTypes[INDEX], xs[INDEX], ys[INDEX], lengths[INDEX], getOriginalIndex(INDEX));
+        }
+
+        @Override public int size() { return noOfSegments; }
+    }
+
+    /**
+     * @deprecated Only used by the read-only view in segments, changes to a
+     * PathSegment will not be reflected in the PathTool.
+     */
+    @Deprecated
+    protected static class PathSegment {
+        protected final int segmentType;
+        protected double    x;
+        protected double    y;
+        protected double    length;
+        protected int       index;
+
+
+        PathSegment(final int SEGMENT_TYPE, final double X, final double Y, final double LENGTH, final int INDEX) {
+            segmentType = SEGMENT_TYPE;
+            x           = X;
+            y           = Y;
+            length      = LENGTH;
+            index       = INDEX;
+        }
+
+        public int getSegmentType() { return segmentType; }
+
+        public double getX() { return x; }
+        public void setX(final double X) { x = X; }
+
+        public double getY() { return y; }
+        public void setY(final double Y) { y = Y; }
+
+        public double getLength() { return length; }
+        public void setLength(final double LENGTH) { length = LENGTH; }
+
+        public int getIndex() { return index; }
+        public void setIndex(final int INDEX) { index = INDEX; }
+    }
+
     protected static class SegmentPathIterator implements PathIterator {
         protected PathIterator pathIterator;
         protected boolean      done;
@@ -300,35 +363,4 @@ public class PathTool {
             }
         }
     }
-
-    protected static class PathSegment {
-        protected final int segmentType;
-        protected double    x;
-        protected double    y;
-        protected double    length;
-        protected int       index;
-
-
-        PathSegment(final int SEGMENT_TYPE, final double X, final double Y, final double LENGTH, final int INDEX) {
-            segmentType = SEGMENT_TYPE;
-            x           = X;
-            y           = Y;
-            length      = LENGTH;
-            index       = INDEX;
-        }
-
-        public int getSegmentType() { return segmentType; }
-
-        public double getX() { return x; }
-        public void setX(final double X) { x = X; }
-
-        public double getY() { return y; }
-        public void setY(final double Y) { y = Y; }
-
-        public double getLength() { return length; }
-        public void setLength(final double LENGTH) { length = LENGTH; }
-
-        public int getIndex() { return index; }
-        public void setIndex(final int INDEX) { index = INDEX; }
-    }
-}
\ No newline at end of file
+}
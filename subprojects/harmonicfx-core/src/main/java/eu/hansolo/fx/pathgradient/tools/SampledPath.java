@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.pathgradient.tools;
+
+
+/**
+ * Immutable result of sampling a path in equal steps along its length.
+ * For each sample it holds the x/y coordinates and the fraction (0 - 1)
+ * of the path length at which the sample was taken.
+ */
+public class SampledPath {
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] fractions;
+
+
+    // ******************** Constructors **************************************
+    public SampledPath(final double[] XS, final double[] YS, final double[] FRACTIONS) {
+        if (XS.length != YS.length || XS.length != FRACTIONS.length) { throw new IllegalArgumentException("Arrays must have the same length"); }
+        xs        = XS;
+        ys        = YS;
+        fractions = FRACTIONS;
+    }
+
+
+    // ******************** Methods *******************************************
+    public int size() { return xs.length; }
+
+    public boolean isEmpty() { return xs.length == 0; }
+
+    public double getX(final int INDEX) { return xs[INDEX]; }
+
+    public double getY(final int INDEX) { return ys[INDEX]; }
+
+    public double getFraction(final int INDEX) { return fractions[INDEX]; }
+
+    public Point getPoint(final int INDEX) { return new Point(xs[INDEX], ys[INDEX]); }
+}
@@ -187,6 +187,23 @@ public abstract class BaseTransform {
                 getMzt() == a.getMzt());
     }
 
+    @Override public int hashCode() {
+        long bits = 7L;
+        bits = 31L * bits + hashBits(getMxx());
+        bits = 31L * bits + hashBits(getMxy());
+        bits = 31L * bits + hashBits(getMxt());
+        bits = 31L * bits + hashBits(getMyx());
+        bits = 31L * bits + hashBits(getMyy());
+        bits = 31L * bits + hashBits(getMyt());
+        return (int) (bits ^ (bits >> 32));
+    }
+
+    /**
+     * Returns the bits of the given value with -0.0 mapped to 0.0 because
+     * equals() compares the matrix elements with ==
+     */
+    static long hashBits(final double VALUE) { return 0.0 == VALUE ? 0L : Double.doubleToLongBits(VALUE); }
+
     static Point makePoint(Point src, Point dst) {
         if (dst == null) {
             dst = new Point();
@@ -73,4 +73,167 @@ public class Helper {
         }
         return subdividedPoints;
     }
+
+    public static final double catmullRom(final double P0, final double P1, final double P2, final double P3, final double T) {
+        return 0.5 * ((2 * P1) + (P2 - P0) * T + (2 * P0 - 5 * P1 + 4 * P2 - P3) * T * T + (3 * P1 - P0 - 3 * P2 + P3) * T * T * T);
+    }
+
+    /**
+     * Subdivides the segment between POINT[SEGMENT] and POINT[SEGMENT + 1] and writes
+     * the points for t = 0 ... (SUB_DIVISIONS - 1) / SUB_DIVISIONS into the result
+     * arrays starting at OFFSET. The end point of the segment is the first point of the
+     * next segment and has to be added by the caller for the last segment.
+     * @return the index behind the last written point
+     */
+    public static final int subdivideSegment(final double[] XS, final double[] YS, final int NO_OF_POINTS, final int SEGMENT, final int SUB_DIVISIONS,
+                                             final double[] RESULT_XS, final double[] RESULT_YS, final int OFFSET) {
+        int    i0         = SEGMENT == 0 ? SEGMENT : SEGMENT - 1;
+        int    i3         = SEGMENT + 2 == NO_OF_POINTS ? SEGMENT + 1 : SEGMENT + 2;
+        double increments = 1.0 / (double) SUB_DIVISIONS;
+        int    index      = OFFSET;
+        for (int j = 0 ; j < SUB_DIVISIONS ; j++) {
+            double t = j * increments;
+            RESULT_XS[index] = catmullRom(XS[i0], XS[SEGMENT], XS[SEGMENT + 1], XS[i3], t);
+            RESULT_YS[index] = catmullRom(YS[i0], YS[SEGMENT], YS[SEGMENT + 1], YS[i3], t);
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Reduces the given points to THRESHOLD points by using the Largest-Triangle-Three-Buckets
+     * algorithm. The first and the last point will always be kept, from each bucket in between the
+     * point that forms the largest triangle with the previously selected point and the average of
+     * the next bucket will be selected. The selected points will be written to RXS and RYS which
+     * need to have a length of at least THRESHOLD.
+     * @return the number of points written to RXS and RYS
+     */
+    public static final int downsampleLTTB(final double[] XS, final double[] YS, final int NO_OF_POINTS, final int THRESHOLD, final double[] RXS, final double[] RYS) {
+        if (THRESHOLD >= NO_OF_POINTS || THRESHOLD < 3) {
+            System.arraycopy(XS, 0, RXS, 0, NO_OF_POINTS);
+            System.arraycopy(YS, 0, RYS, 0, NO_OF_POINTS);
+            return NO_OF_POINTS;
+        }
+        double bucketSize = (double) (NO_OF_POINTS - 2) / (double) (THRESHOLD - 2);
+        int    selected   = 0;
+        int    count      = 0;
+        RXS[count]   = XS[0];
+        RYS[count++] = YS[0];
+        for (int i = 0 ; i < THRESHOLD - 2 ; i++) {
+            int    avgFrom = (int) ((i + 1) * bucketSize) + 1;
+            int    avgTo   = Math.min((int) ((i + 2) * bucketSize) + 1, NO_OF_POINTS);
+            double avgX    = 0;
+            double avgY    = 0;
+            for (int j = avgFrom ; j < avgTo ; j++) {
+                avgX += XS[j];
+                avgY += YS[j];
+            }
+            avgX /= (avgTo - avgFrom);
+            avgY /= (avgTo - avgFrom);
+
+            int    from    = (int) (i * bucketSize) + 1;
+            int    to      = (int) ((i + 1) * bucketSize) + 1;
+            double ax      = XS[selected];
+            double ay      = YS[selected];
+            double maxArea = -1;
+            int    next    = from;
+            for (int j = from ; j < to ; j++) {
+                double area = Math.abs((ax - avgX) * (YS[j] - ay) - (ax - XS[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next    = j;
+                }
+            }
+            RXS[count]   = XS[next];
+            RYS[count++] = YS[next];
+            selected     = next;
+        }
+        RXS[count]   = XS[NO_OF_POINTS - 1];
+        RYS[count++] = YS[NO_OF_POINTS - 1];
+        return count;
+    }
+
+    /**
+     * Reduces the given points (sorted by x) to the minimum and the maximum y value in each
+     * bucket of BUCKET_WIDTH in x-direction. Both points will be written in their original order
+     * to RXS and RYS which need to have a length of at least NO_OF_POINTS.
+     * @return the number of points written to RXS and RYS
+     */
+    public static final int downsampleMinMax(final double[] XS, final double[] YS, final int NO_OF_POINTS, final double BUCKET_WIDTH, final double[] RXS, final double[] RYS) {
+        int count = 0;
+        int i     = 0;
+        while (i < NO_OF_POINTS) {
+            double bucketEnd = (Math.floor(XS[i] / BUCKET_WIDTH) + 1) * BUCKET_WIDTH;
+            int    min       = i;
+            int    max       = i;
+            int    j         = i + 1;
+            while (j < NO_OF_POINTS && XS[j] < bucketEnd) {
+                if (YS[j] < YS[min]) { min = j; }
+                if (YS[j] > YS[max]) { max = j; }
+                j++;
+            }
+            int first  = Math.min(min, max);
+            int second = Math.max(min, max);
+            RXS[count]   = XS[first];
+            RYS[count++] = YS[first];
+            if (second != first) {
+                RXS[count]   = XS[second];
+                RYS[count++] = YS[second];
+            }
+            i = j;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of subdivisions that is needed for the Catmull-Rom segment between
+     * POINT[SEGMENT] and POINT[SEGMENT + 1] so that the polyline does not deviate more than
+     * TOLERANCE from the curve. The deviation is estimated from the second differences of the
+     * equivalent bezier control polygon and the result is limited by the length of the segment
+     * (subdivisions that are closer than TOLERANCE to each other are useless).
+     */
+    public static final int getAdaptiveSubDivisions(final double[] XS, final double[] YS, final int NO_OF_POINTS, final int SEGMENT, final int MAX_SUB_DIVISIONS, final double TOLERANCE) {
+        int    i0  = SEGMENT == 0 ? SEGMENT : SEGMENT - 1;
+        int    i3  = SEGMENT + 2 == NO_OF_POINTS ? SEGMENT + 1 : SEGMENT + 2;
+        double x1  = XS[SEGMENT];
+        double y1  = YS[SEGMENT];
+        double x2  = XS[SEGMENT + 1];
+        double y2  = YS[SEGMENT + 1];
+        double c1x = x1 + (x2 - XS[i0]) / 6.0;
+        double c1y = y1 + (y2 - YS[i0]) / 6.0;
+        double c2x = x2 - (XS[i3] - x1) / 6.0;
+        double c2y = y2 - (YS[i3] - y1) / 6.0;
+
+        double ddx1        = x1 - 2 * c1x + c2x;
+        double ddy1        = y1 - 2 * c1y + c2y;
+        double ddx2        = c1x - 2 * c2x + x2;
+        double ddy2        = c1y - 2 * c2y + y2;
+        double dd          = Math.sqrt(Math.max(ddx1 * ddx1 + ddy1 * ddy1, ddx2 * ddx2 + ddy2 * ddy2));
+        double length      = Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
+        int    byCurvature = (int) Math.ceil(Math.sqrt(0.75 * dd / TOLERANCE));
+        int    byLength    = (int) Math.ceil(length / TOLERANCE);
+        return clamp(1, MAX_SUB_DIVISIONS, Math.min(byCurvature, byLength));
+    }
+
+    /**
+     * Allocation free version of subdividePoints() that works on primitive arrays.
+     * The result arrays need a size of at least ((NO_OF_POINTS - 1) * SUB_DIVISIONS) + 1.
+     * @return the number of points written to the result arrays
+     */
+    public static final int subdividePoints(final double[] XS, final double[] YS, final int NO_OF_POINTS, final int SUB_DIVISIONS, final double[] RESULT_XS, final double[] RESULT_YS) {
+        if (NO_OF_POINTS < 2) {
+            if (NO_OF_POINTS == 1) {
+                RESULT_XS[0] = XS[0];
+                RESULT_YS[0] = YS[0];
+            }
+            return NO_OF_POINTS;
+        }
+        int index = 0;
+        for (int i = 0 ; i < NO_OF_POINTS - 1 ; i++) {
+            index = subdivideSegment(XS, YS, NO_OF_POINTS, i, SUB_DIVISIONS, RESULT_XS, RESULT_YS, index);
+        }
+        RESULT_XS[index] = XS[NO_OF_POINTS - 1];
+        RESULT_YS[index] = YS[NO_OF_POINTS - 1];
+        return index + 1;
+    }
 }
@@ -0,0 +1,590 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.smoothedchart;
+
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Holds the display coordinates of one series together with the smoothed
+ * points in primitive arrays that will be reused between layout passes.
+ * The path elements of the fill and stroke path will be updated in place
+ * so that a layout pass with an unchanged number of points does not
+ * allocate any objects.
+ * If the data only changed at the end (e.g. points were appended) or points
+ * were removed from the beginning while the display positions of all other
+ * points stayed the same, only the affected segments will be smoothed again
+ * and only their path elements will be updated.
+ * The points can be downsampled before smoothing, in this case the full
+ * resolution points will be kept in separate arrays for hit testing.
+ */
+class SeriesPath {
+    private static final int       INITIAL_CAPACITY = 64;
+    private              double[]  xs;
+    private              double[]  ys;
+    private              int       noOfPoints;
+    private              double[]  rawXs;
+    private              double[]  rawYs;
+    private              int       noOfRawPoints;
+    private              boolean   downsampled;
+    private              boolean   symbolsHidden;
+    private              boolean   symbolsVisible;
+    private              double[]  lastXs;
+    private              double[]  lastYs;
+    private              int       lastNoOfPoints;
+    private              int       subDivisions;
+    private              double    tolerance;
+    private              double    minX;
+    private              double    maxX;
+    private              int       lastSubDivisions;
+    private              double    lastTolerance;
+    private              double    lastMinX;
+    private              double    lastMaxX;
+    private              double[]  smoothedXs;
+    private              double[]  smoothedYs;
+    private              int       noOfSmoothedPoints;
+    private              int[]     segmentStarts;
+    private              int       firstVisible;
+    private              boolean   smoothed;
+    private              boolean   fullUpdate;
+    private              boolean   pending;
+    private              int       removedAtHead;
+    private              int       dirtyHeadTo;
+    private              int       dirtyTailFrom;
+    private        final MoveTo    strokeMoveTo;
+    private        final MoveTo    fillMoveTo;
+    private        final LineTo    fillLineToEnd;
+    private        final LineTo    fillLineToStart;
+    private        final ClosePath fillClosePath;
+    private              int       noOfStrokeLines;
+    private              int       noOfFillLines;
+
+
+    // ******************** Constructors **************************************
+    SeriesPath() {
+        xs               = new double[INITIAL_CAPACITY];
+        ys               = new double[INITIAL_CAPACITY];
+        rawXs            = new double[INITIAL_CAPACITY];
+        rawYs            = new double[INITIAL_CAPACITY];
+        lastXs           = new double[INITIAL_CAPACITY];
+        lastYs           = new double[INITIAL_CAPACITY];
+        lastSubDivisions = -1;
+        smoothedXs       = new double[INITIAL_CAPACITY];
+        smoothedYs       = new double[INITIAL_CAPACITY];
+        segmentStarts    = new int[INITIAL_CAPACITY];
+        strokeMoveTo     = new MoveTo();
+        fillMoveTo       = new MoveTo();
+        fillLineToEnd    = new LineTo();
+        fillLineToStart  = new LineTo();
+        fillClosePath    = new ClosePath();
+        noOfStrokeLines  = -1;
+        noOfFillLines    = -1;
+    }
+
+
+    // ******************** Methods *******************************************
+    void reset() {
+        noOfPoints  = 0;
+        downsampled = false;
+        smoothed    = false;
+    }
+
+    void add(final double X, final double Y) {
+        if (noOfPoints == xs.length) {
+            xs = Arrays.copyOf(xs, noOfPoints << 1);
+            ys = Arrays.copyOf(ys, noOfPoints << 1);
+        }
+        xs[noOfPoints] = X;
+        ys[noOfPoints] = Y;
+        noOfPoints++;
+    }
+
+    int getNoOfPoints() { return noOfPoints; }
+
+    double getX(final int INDEX) { return xs[INDEX]; }
+
+    double getY(final int INDEX) { return ys[INDEX]; }
+
+    int getNoOfSmoothedPoints() { return noOfSmoothedPoints - firstVisible; }
+
+    double getSmoothedX(final int INDEX) { return smoothedXs[firstVisible + INDEX]; }
+
+    double getSmoothedY(final int INDEX) { return smoothedYs[firstVisible + INDEX]; }
+
+    boolean isDownsampled() { return downsampled; }
+
+    boolean isSymbolsHidden() { return symbolsHidden; }
+
+    /**
+     * Marks the symbols of the series as hidden and keeps the given
+     * visibility to be able to restore it in showSymbols()
+     */
+    void hideSymbols(final boolean VISIBLE) {
+        symbolsHidden  = true;
+        symbolsVisible = VISIBLE;
+    }
+
+    /**
+     * Marks the symbols of the series as not hidden and returns the
+     * visibility the symbols had before they were hidden
+     */
+    boolean showSymbols() {
+        symbolsHidden = false;
+        return symbolsVisible;
+    }
+
+    int getNoOfRawPoints() { return downsampled ? noOfRawPoints : noOfPoints; }
+
+    double getRawX(final int INDEX) { return downsampled ? rawXs[INDEX] : xs[INDEX]; }
+
+    double getRawY(final int INDEX) { return downsampled ? rawYs[INDEX] : ys[INDEX]; }
+
+    /**
+     * Returns the index of the last full resolution point with an x value <= X
+     * or -1 if X is smaller than the x value of the first point.
+     */
+    int getRawIndex(final double X) {
+        int index = downsampled ? Arrays.binarySearch(rawXs, 0, noOfRawPoints, X) : Arrays.binarySearch(xs, 0, noOfPoints, X);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns the y value at X interpolated between the full resolution points
+     * or Double.NaN if X is outside of the points
+     */
+    double getRawYAt(final double X) {
+        int index = getRawIndex(X);
+        if (index == getNoOfRawPoints() - 1 && X == getRawX(index)) { return getRawY(index); }
+        if (index < 0 || index >= getNoOfRawPoints() - 1) { return Double.NaN; }
+        double x0 = getRawX(index);
+        double y0 = getRawY(index);
+        double x1 = getRawX(index + 1);
+        double y1 = getRawY(index + 1);
+        return x1 > x0 ? y0 + (y1 - y0) * (X - x0) / (x1 - x0) : y0;
+    }
+
+    /**
+     * Returns the y value of the rendered series at X or Double.NaN if X is outside of the
+     * points. If the points have been smoothed the segment that contains X will be found by
+     * a binary search and the y value will be interpolated between the smoothed points of
+     * this segment. Downsampled series will return the y value of the full resolution points.
+     */
+    double getYAt(final double X) {
+        if (!smoothed || downsampled || noOfPoints < 2) { return getRawYAt(X); }
+        int segment = Arrays.binarySearch(xs, 0, noOfPoints, X);
+        segment = segment >= 0 ? Math.min(segment, noOfPoints - 2) : -segment - 2;
+        if (segment < 0 || segment > noOfPoints - 2) { return Double.NaN; }
+
+        int from = segmentStarts[segment];
+        int to   = segment < noOfPoints - 2 ? segmentStarts[segment + 1] : noOfSmoothedPoints - 1;
+        for (int i = from ; i < to ; i++) {
+            double x0 = smoothedXs[i];
+            double x1 = smoothedXs[i + 1];
+            if ((X >= x0 && X <= x1) || (X <= x0 && X >= x1)) {
+                return x1 != x0 ? smoothedYs[i] + (smoothedYs[i + 1] - smoothedYs[i]) * (X - x0) / (x1 - x0) : smoothedYs[i];
+            }
+        }
+        return getRawYAt(X);
+    }
+
+    /**
+     * Reduces the points (sorted by x) to at most THRESHOLD points by
+     * using the Largest-Triangle-Three-Buckets algorithm.
+     */
+    void downsampleLTTB(final int THRESHOLD) {
+        if (noOfPoints <= THRESHOLD || THRESHOLD < 3) { return; }
+        keepRawPoints();
+        noOfPoints = Helper.downsampleLTTB(rawXs, rawYs, noOfRawPoints, THRESHOLD, xs, ys);
+    }
+
+    /**
+     * Reduces the points (sorted by x) to the minimum and the maximum
+     * of each bucket of BUCKET_WIDTH pixels in x-direction.
+     */
+    void downsampleMinMax(final double BUCKET_WIDTH) {
+        if (BUCKET_WIDTH <= 0 || noOfPoints <= 2 || (xs[noOfPoints - 1] - xs[0]) / BUCKET_WIDTH * 2 >= noOfPoints) { return; }
+        keepRawPoints();
+        noOfPoints = Helper.downsampleMinMax(rawXs, rawYs, noOfRawPoints, BUCKET_WIDTH, xs, ys);
+    }
+
+    void sortByX() {
+        for (int i = 1 ; i < noOfPoints ; i++) {
+            if (xs[i] < xs[i - 1]) {
+                quickSort(0, noOfPoints - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the points (sorted by x) outside of MIN_X - MAX_X but keeps the
+     * nearest point on each side, like AreaChart does for its paths.
+     */
+    void clipX(final double MIN_X, final double MAX_X) {
+        if (noOfPoints == 0 || (xs[0] >= MIN_X && xs[noOfPoints - 1] <= MAX_X)) { return; }
+        int from = 0;
+        while (from < noOfPoints - 1 && xs[from + 1] < MIN_X) { from++; }
+        int to = noOfPoints - 1;
+        while (to > from && xs[to - 1] > MAX_X) { to--; }
+        noOfPoints = to - from + 1;
+        if (from > 0) {
+            System.arraycopy(xs, from, xs, 0, noOfPoints);
+            System.arraycopy(ys, from, ys, 0, noOfPoints);
+        }
+    }
+
+    void smooth(final int SUB_DIVISIONS) { smooth(SUB_DIVISIONS, 0, -Double.MAX_VALUE, Double.MAX_VALUE); }
+    /**
+     * Smoothes the points with the given number of subdivisions per segment. If TOLERANCE
+     * is > 0 the number of subdivisions of each segment will be derived from its on-screen
+     * length and curvature with SUB_DIVISIONS as the upper limit, so that the smoothed curve
+     * does not deviate more than TOLERANCE pixels from the real spline. Segments outside of
+     * MIN_X - MAX_X will not be subdivided in this case.
+     */
+    void smooth(final int SUB_DIVISIONS, final double TOLERANCE, final double MIN_X, final double MAX_X) {
+        subDivisions = SUB_DIVISIONS;
+        tolerance    = TOLERANCE;
+        minX         = MIN_X;
+        maxX         = MAX_X;
+        if (!smoothIncremental()) { smoothAll(); }
+        smoothed = true;
+
+        if (lastXs.length < noOfPoints) {
+            lastXs = new double[xs.length];
+            lastYs = new double[ys.length];
+        }
+        System.arraycopy(xs, 0, lastXs, 0, noOfPoints);
+        System.arraycopy(ys, 0, lastYs, 0, noOfPoints);
+        lastNoOfPoints   = noOfPoints;
+        lastSubDivisions = subDivisions;
+        lastTolerance    = tolerance;
+        lastMinX         = minX;
+        lastMaxX         = maxX;
+    }
+
+    void apply(final Path FILL_PATH, final Path STROKE_PATH, final double HEIGHT) {
+        if (getNoOfSmoothedPoints() <= 0) {
+            FILL_PATH.getElements().clear();
+            STROKE_PATH.getElements().clear();
+            noOfStrokeLines = -1;
+            noOfFillLines   = -1;
+        } else {
+            boolean incremental = pending && !fullUpdate;
+            applyStroke(STROKE_PATH.getElements(), incremental);
+            applyFill(FILL_PATH.getElements(), HEIGHT, incremental);
+        }
+        fullUpdate = false;
+        pending    = false;
+    }
+
+    /**
+     * Removes all elements from the given paths, used if the smoothed points will be drawn
+     * on a canvas. The next call to apply() will recreate all path elements.
+     */
+    void clear(final Path FILL_PATH, final Path STROKE_PATH) {
+        if (!FILL_PATH.getElements().isEmpty())   { FILL_PATH.getElements().clear(); }
+        if (!STROKE_PATH.getElements().isEmpty()) { STROKE_PATH.getElements().clear(); }
+        noOfStrokeLines = -1;
+        noOfFillLines   = -1;
+        fullUpdate      = false;
+        pending         = false;
+    }
+
+    /**
+     * Fills the area below the smoothed points on the given GraphicsContext
+     * in the same way as the fill path created by apply()
+     */
+    void fill(final GraphicsContext CTX, final double HEIGHT) {
+        if (getNoOfSmoothedPoints() <= 0) { return; }
+        CTX.beginPath();
+        CTX.moveTo(smoothedXs[firstVisible], HEIGHT);
+        for (int i = firstVisible ; i < noOfSmoothedPoints ; i++) { CTX.lineTo(smoothedXs[i], smoothedYs[i]); }
+        CTX.lineTo(smoothedXs[noOfSmoothedPoints - 1], HEIGHT);
+        CTX.lineTo(0, HEIGHT);
+        CTX.closePath();
+        CTX.fill();
+    }
+
+    /**
+     * Strokes the smoothed points on the given GraphicsContext
+     * in the same way as the stroke path created by apply()
+     */
+    void stroke(final GraphicsContext CTX) {
+        if (getNoOfSmoothedPoints() <= 0) { return; }
+        CTX.beginPath();
+        CTX.moveTo(smoothedXs[firstVisible], smoothedYs[firstVisible]);
+        for (int i = firstVisible + 1 ; i < noOfSmoothedPoints ; i++) { CTX.lineTo(smoothedXs[i], smoothedYs[i]); }
+        CTX.stroke();
+    }
+
+    private void smoothAll() {
+        ensureSegmentCapacity(noOfPoints);
+        ensureSmoothedCapacity(getNoOfSmoothedPoints(0), false);
+        int index = 0;
+        for (int i = 0 ; i < noOfPoints - 1 ; i++) {
+            segmentStarts[i] = index;
+            index = Helper.subdivideSegment(xs, ys, noOfPoints, i, getSubDivisions(i), smoothedXs, smoothedYs, index);
+        }
+        if (noOfPoints > 0) {
+            smoothedXs[index] = xs[noOfPoints - 1];
+            smoothedYs[index] = ys[noOfPoints - 1];
+            index++;
+        }
+        noOfSmoothedPoints = index;
+        firstVisible       = countLeadingOvershoot();
+        fullUpdate         = true;
+    }
+
+    /**
+     * Compares the current data with the data of the last call and only smoothes the segments
+     * that are affected by the changes. A Catmull-Rom segment only depends on its four
+     * neighbouring points, so appending a point only changes the last two segments.
+     * @return false if the data changed in a way that needs a complete smoothing
+     */
+    private boolean smoothIncremental() {
+        if (fullUpdate || pending || noOfPoints < 3 || lastNoOfPoints < 3) { return false; }
+        if (subDivisions != lastSubDivisions || tolerance != lastTolerance || minX != lastMinX || maxX != lastMaxX) { return false; }
+
+        // Find the offset of the first point in the last data (> 0 if points were removed at the beginning)
+        int offset = 0;
+        if (xs[0] != lastXs[0] || ys[0] != lastYs[0]) {
+            offset = Arrays.binarySearch(lastXs, 0, lastNoOfPoints, xs[0]);
+            if (offset <= 0 || ys[0] != lastYs[offset]) { return false; }
+        }
+
+        // Find the first point that differs from the last data
+        int overlap    = Math.min(noOfPoints, lastNoOfPoints - offset);
+        int firstDirty = 0;
+        while (firstDirty < overlap && xs[firstDirty] == lastXs[firstDirty + offset] && ys[firstDirty] == lastYs[firstDirty + offset]) { firstDirty++; }
+
+        if (offset == 0 && firstDirty == noOfPoints && noOfPoints == lastNoOfPoints) {
+            removedAtHead = 0;
+            dirtyHeadTo   = 0;
+            dirtyTailFrom = getNoOfSmoothedPoints();
+            pending       = true;
+            return true;
+        }
+        if (firstDirty < 3) { return false; }
+
+        // Segments [1, firstChanged) stay the same, segment 0 changes if points were removed at the beginning
+        int firstChanged     = firstDirty - 2;
+        int lastFirstVisible = firstVisible;
+        int index;
+        int from = 0;
+        int segment0Size = 0;
+        if (offset > 0) {
+            segment0Size = getSubDivisions(0);
+            from         = segmentStarts[offset + 1];
+            int to       = segmentStarts[offset + firstChanged];
+            System.arraycopy(smoothedXs, from, smoothedXs, segment0Size, to - from);
+            System.arraycopy(smoothedYs, from, smoothedYs, segment0Size, to - from);
+            for (int i = 1 ; i < firstChanged ; i++) { segmentStarts[i] = segmentStarts[i + offset] - from + segment0Size; }
+            segmentStarts[0] = 0;
+            Helper.subdivideSegment(xs, ys, noOfPoints, 0, segment0Size, smoothedXs, smoothedYs, 0);
+            index = to - from + segment0Size;
+        } else {
+            index = segmentStarts[firstChanged];
+        }
+
+        ensureSegmentCapacity(noOfPoints);
+        ensureSmoothedCapacity(index + getNoOfSmoothedPoints(firstChanged), true);
+        int firstChangedStart = index;
+        for (int i = firstChanged ; i < noOfPoints - 1 ; i++) {
+            segmentStarts[i] = index;
+            index = Helper.subdivideSegment(xs, ys, noOfPoints, i, getSubDivisions(i), smoothedXs, smoothedYs, index);
+        }
+        smoothedXs[index] = xs[noOfPoints - 1];
+        smoothedYs[index] = ys[noOfPoints - 1];
+        noOfSmoothedPoints = index + 1;
+
+        if (offset > 0) {
+            firstVisible = countLeadingOvershoot();
+            int removed  = from - lastFirstVisible;
+            int inserted = segment0Size - firstVisible;
+            if (removed < inserted) { return fallback(); }
+            removedAtHead = removed - inserted;
+            dirtyHeadTo   = inserted;
+        } else {
+            removedAtHead = 0;
+            dirtyHeadTo   = 0;
+        }
+        dirtyTailFrom = Math.max(0, firstChangedStart - firstVisible);
+        pending       = true;
+        return true;
+    }
+
+    private int getSubDivisions(final int SEGMENT) {
+        if (tolerance <= 0) { return subDivisions; }
+        double x1 = xs[SEGMENT];
+        double x2 = xs[SEGMENT + 1];
+        if ((x1 < minX && x2 < minX) || (x1 > maxX && x2 > maxX)) { return 1; }
+        return Helper.getAdaptiveSubDivisions(xs, ys, noOfPoints, SEGMENT, subDivisions, tolerance);
+    }
+
+    /**
+     * Returns the number of smoothed points that will be created for the segments starting at FROM_SEGMENT
+     * including the last data point.
+     */
+    private int getNoOfSmoothedPoints(final int FROM_SEGMENT) {
+        if (noOfPoints < 2) { return noOfPoints; }
+        if (tolerance <= 0) { return ((noOfPoints - 1 - FROM_SEGMENT) * subDivisions) + 1; }
+        int noOfSmoothedPoints = 1;
+        for (int i = FROM_SEGMENT ; i < noOfPoints - 1 ; i++) { noOfSmoothedPoints += getSubDivisions(i); }
+        return noOfSmoothedPoints;
+    }
+
+    private void keepRawPoints() {
+        double[] tmpXs = rawXs;
+        double[] tmpYs = rawYs;
+        rawXs         = xs;
+        rawYs         = ys;
+        noOfRawPoints = noOfPoints;
+        xs            = tmpXs.length < noOfPoints ? new double[rawXs.length] : tmpXs;
+        ys            = tmpYs.length < noOfPoints ? new double[rawYs.length] : tmpYs;
+        downsampled   = true;
+    }
+
+    private boolean fallback() {
+        pending = false;
+        return false;
+    }
+
+    private int countLeadingOvershoot() {
+        if (noOfPoints == 0) { return 0; }
+        // skip points of the first segment that overshoot to the left of the first data point
+        double firstX = xs[0];
+        int    index  = 0;
+        while (index < noOfSmoothedPoints - 1 && Double.compare(smoothedXs[index], firstX) < 0) { index++; }
+        return index;
+    }
+
+    private void applyStroke(final ObservableList<PathElement> ELEMENTS, final boolean INCREMENTAL) {
+        boolean valid = noOfStrokeLines >= 0 && ELEMENTS.size() == noOfStrokeLines + 1 && ELEMENTS.get(0) == strokeMoveTo;
+        int     from  = 0;
+        if (valid && INCREMENTAL && removedAtHead <= noOfStrokeLines) {
+            if (removedAtHead > 0) {
+                ELEMENTS.remove(1, 1 + removedAtHead);
+                noOfStrokeLines -= removedAtHead;
+            }
+            setLines(ELEMENTS, 1, firstVisible + 1, 0, Math.min(dirtyHeadTo - 1, noOfStrokeLines));
+            from = Math.max(0, dirtyTailFrom - 1);
+        } else if (!valid) {
+            ELEMENTS.setAll(strokeMoveTo);
+            noOfStrokeLines = 0;
+        }
+        strokeMoveTo.setX(smoothedXs[firstVisible]);
+        strokeMoveTo.setY(smoothedYs[firstVisible]);
+        noOfStrokeLines = updateLines(ELEMENTS, 1, noOfStrokeLines, firstVisible + 1, getNoOfSmoothedPoints() - 1, from);
+    }
+
+    private void applyFill(final ObservableList<PathElement> ELEMENTS, final double HEIGHT, final boolean INCREMENTAL) {
+        boolean valid = noOfFillLines >= 0 && ELEMENTS.size() == noOfFillLines + 4 && ELEMENTS.get(0) == fillMoveTo;
+        int     from  = 0;
+        if (valid && INCREMENTAL && removedAtHead <= noOfFillLines) {
+            if (removedAtHead > 0) {
+                ELEMENTS.remove(1, 1 + removedAtHead);
+                noOfFillLines -= removedAtHead;
+            }
+            setLines(ELEMENTS, 1, firstVisible, 0, Math.min(dirtyHeadTo, noOfFillLines));
+            from = dirtyTailFrom;
+        } else if (!valid) {
+            ELEMENTS.setAll(fillMoveTo, fillLineToEnd, fillLineToStart, fillClosePath);
+            noOfFillLines = 0;
+        }
+        double firstX = smoothedXs[firstVisible];
+        double lastX  = smoothedXs[noOfSmoothedPoints - 1];
+        fillMoveTo.setX(firstX);
+        fillMoveTo.setY(HEIGHT);
+        fillLineToEnd.setX(lastX);
+        fillLineToEnd.setY(HEIGHT);
+        fillLineToStart.setX(0);
+        fillLineToStart.setY(HEIGHT);
+        noOfFillLines = updateLines(ELEMENTS, 1, noOfFillLines, firstVisible, getNoOfSmoothedPoints(), from);
+    }
+
+    private void setLines(final ObservableList<PathElement> ELEMENTS, final int ELEMENT_OFFSET, final int POINT_OFFSET, final int FROM, final int TO) {
+        for (int i = FROM ; i < TO ; i++) {
+            LineTo lineTo = (LineTo) ELEMENTS.get(ELEMENT_OFFSET + i);
+            lineTo.setX(smoothedXs[POINT_OFFSET + i]);
+            lineTo.setY(smoothedYs[POINT_OFFSET + i]);
+        }
+    }
+
+    /**
+     * Updates the existing LineTo elements starting at ELEMENT_OFFSET + FROM with the smoothed points
+     * starting at POINT_OFFSET + FROM and adds or removes LineTo elements if the number of points changed.
+     * @return the new number of LineTo elements
+     */
+    private int updateLines(final ObservableList<PathElement> ELEMENTS, final int ELEMENT_OFFSET, final int NO_OF_LINES, final int POINT_OFFSET, final int NO_OF_NEEDED_LINES, final int FROM) {
+        setLines(ELEMENTS, ELEMENT_OFFSET, POINT_OFFSET, FROM, Math.min(NO_OF_LINES, NO_OF_NEEDED_LINES));
+        if (NO_OF_NEEDED_LINES > NO_OF_LINES) {
+            List<PathElement> lines = new ArrayList<>(NO_OF_NEEDED_LINES - NO_OF_LINES);
+            for (int i = NO_OF_LINES ; i < NO_OF_NEEDED_LINES ; i++) {
+                lines.add(new LineTo(smoothedXs[POINT_OFFSET + i], smoothedYs[POINT_OFFSET + i]));
+            }
+            ELEMENTS.addAll(ELEMENT_OFFSET + NO_OF_LINES, lines);
+        } else if (NO_OF_NEEDED_LINES < NO_OF_LINES) {
+            ELEMENTS.remove(ELEMENT_OFFSET + NO_OF_NEEDED_LINES, ELEMENT_OFFSET + NO_OF_LINES);
+        }
+        return NO_OF_NEEDED_LINES;
+    }
+
+    private void ensureSmoothedCapacity(final int CAPACITY, final boolean KEEP_CONTENT) {
+        if (smoothedXs.length >= CAPACITY) { return; }
+        int capacity = Math.max(CAPACITY, smoothedXs.length << 1);
+        smoothedXs = KEEP_CONTENT ? Arrays.copyOf(smoothedXs, capacity) : new double[capacity];
+        smoothedYs = KEEP_CONTENT ? Arrays.copyOf(smoothedYs, capacity) : new double[capacity];
+    }
+
+    private void ensureSegmentCapacity(final int CAPACITY) {
+        if (segmentStarts.length >= CAPACITY) { return; }
+        segmentStarts = Arrays.copyOf(segmentStarts, Math.max(CAPACITY, segmentStarts.length << 1));
+    }
+
+    private void quickSort(final int LOW, final int HIGH) {
+        int    low   = LOW;
+        int    high  = HIGH;
+        double pivot = xs[(LOW + HIGH) >>> 1];
+        while (low <= high) {
+            while (xs[low] < pivot) { low++; }
+            while (xs[high] > pivot) { high--; }
+            if (low <= high) {
+                double x = xs[low];
+                double y = ys[low];
+                xs[low]  = xs[high];
+                ys[low]  = ys[high];
+                xs[high] = x;
+                ys[high] = y;
+                low++;
+                high--;
+            }
+        }
+        if (LOW < high) { quickSort(LOW, high); }
+        if (low < HIGH) { quickSort(low, HIGH); }
+    }
+}
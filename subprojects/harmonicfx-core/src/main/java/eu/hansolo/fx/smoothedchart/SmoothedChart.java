@@ -19,9 +19,14 @@ package eu.hansolo.fx.smoothedchart;
 
 import com.sun.javafx.charts.Legend;
 import com.sun.javafx.charts.Legend.LegendItem;
+import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
 import javafx.animation.PauseTransition;
 import javafx.animation.SequentialTransition;
+import javafx.animation.Timeline;
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.DoubleProperty;
@@ -30,6 +35,7 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.IntegerPropertyBase;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -41,9 +47,12 @@ import javafx.geometry.Point2D;
 import javafx.geometry.Side;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.chart.AreaChart;
 import javafx.scene.chart.Axis;
 import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ValueAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
@@ -59,17 +68,17 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Circle;
-import javafx.scene.shape.ClosePath;
 import javafx.scene.shape.Line;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -81,6 +90,8 @@ import java.util.stream.Collectors;
 public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     public static final Background TRANSPARENT_BACKGROUND = new Background(new BackgroundFill(Color.TRANSPARENT, CornerRadii.EMPTY, Insets.EMPTY));
     public enum ChartType { AREA, LINE }
+    public enum Downsampling { NONE, LTTB, MIN_MAX }
+    public enum RenderMode { PATH, CANVAS }
     private static final int                              MAX_SUBDIVISIONS = 64;
     private static final int                              MAX_DECIMALS     = 10;
     private              boolean                          _smoothed;
@@ -89,6 +100,14 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              ObjectProperty<ChartType>        chartType;
     private              int                              _subDivisions;
     private              IntegerProperty                  subDivisions;
+    private              boolean                          _adaptiveSubDivisions;
+    private              BooleanProperty                  adaptiveSubDivisions;
+    private              double                           _pixelTolerance;
+    private              DoubleProperty                   pixelTolerance;
+    private              Downsampling                     _downsampling;
+    private              ObjectProperty<Downsampling>     downsampling;
+    private              RenderMode                       _renderMode;
+    private              ObjectProperty<RenderMode>       renderMode;
     private              boolean                          _snapToTicks;
     private              BooleanProperty                  snapToTicks;
     private              boolean                          _symbolsVisible;
@@ -103,6 +122,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              IntegerProperty                  decimals;
     private              String                           formatString;
     private              Circle                           selector;
+    private              Line                             crosshair;
     private              Tooltip                          selectorTooltip;
     private              Region                           chartPlotBackground;
     private              PauseTransition                  timeBeforeFadeOut;
@@ -110,6 +130,8 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              List<Path>                       strokePaths;
     private              boolean                          _interactive;
     private              BooleanProperty                  interactive;
+    private              boolean                          _hoverTracking;
+    private              BooleanProperty                  hoverTracking;
     private              double                           _tooltipTimeout;
     private              DoubleProperty                   tooltipTimeout;
     private              Path                             horizontalGridLines;
@@ -117,8 +139,15 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              Line                             horizontalZeroLine;
     private              Line                             verticalZeroLine;
     private              EventHandler<MouseEvent>         clickHandler;
+    private              EventHandler<MouseEvent>         hoverHandler;
     private              EventHandler<ActionEvent>        endOfTransformationHandler;
     private              ListChangeListener<Series<X, Y>> seriesListener;
+    private              Map<Series<X, Y>, SeriesPath>    seriesPaths;
+    private              Canvas                           canvas;
+    private              InvalidationListener             canvasListener;
+    private              Map<Series<X, Y>, StreamingSeries> streamingSeries;
+    private              AnimationTimer                   streamingTimer;
+    private              Map<Series<X, Y>, DoubleProperty> seriesYMultipliers;
 
 
     // ******************** Constructors **************************************
@@ -141,16 +170,28 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         _smoothed                  = true;
         _chartType                 = ChartType.LINE;
         _subDivisions              = 16;
+        _adaptiveSubDivisions      = false;
+        _pixelTolerance            = 1.0;
+        _downsampling              = Downsampling.NONE;
+        _renderMode                = RenderMode.PATH;
         _snapToTicks               = false;
         _selectorFillColor         = Color.WHITE;
         _selectorStrokeColor       = Color.RED;
         _selectorSize              = 10;
         _decimals                  = 2;
         _interactive               = false;
+        _hoverTracking             = false;
         _tooltipTimeout            = 2000;
         formatString               = "%.2f";
         strokePaths                = new ArrayList<>();
+        seriesPaths                = new HashMap<>();
+        canvasListener             = o -> drawCanvas();
+        streamingSeries            = new HashMap<>();
+        streamingTimer             = new AnimationTimer() {
+            @Override public void handle(final long now) { publishStreamingSeries(); }
+        };
         clickHandler               = e -> select(e);
+        hoverHandler               = e -> track(e);
         endOfTransformationHandler = e -> selectorTooltip.hide();
         seriesListener             = change -> {
             while (change.next()) {
@@ -159,8 +200,14 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
                         final Series<X, Y> series     = addedItem;
                         final Path         strokePath = (Path) ((Group) series.getNode()).getChildren().get(1);
                         final Path         fillPath   = (Path) ((Group) series.getNode()).getChildren().get(0);
+                        // The paths are empty in CANVAS mode and only need to be pickable in PATH mode
+                        fillPath.setMouseTransparent(RenderMode.CANVAS == getRenderMode());
+                        strokePath.setMouseTransparent(RenderMode.CANVAS == getRenderMode());
                         fillPath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
                         strokePath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+                        fillPath.fillProperty().addListener(canvasListener);
+                        strokePath.strokeProperty().addListener(canvasListener);
+                        strokePath.strokeWidthProperty().addListener(canvasListener);
                         strokePaths.add(strokePath);
                     });
                 } else if (change.wasRemoved()) {
@@ -168,12 +215,20 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
                         final Series<X, Y> series     = removedItem;
                         final Path         strokePath = (Path) ((Group) series.getNode()).getChildren().get(1);
                         final Path         fillPath   = (Path) ((Group) series.getNode()).getChildren().get(0);
+                        fillPath.setMouseTransparent(false);
+                        strokePath.setMouseTransparent(false);
                         fillPath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
                         strokePath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+                        fillPath.fillProperty().removeListener(canvasListener);
+                        strokePath.strokeProperty().removeListener(canvasListener);
+                        strokePath.strokeWidthProperty().removeListener(canvasListener);
                         strokePaths.remove(strokePath);
                     });
                 }
             }
+            seriesPaths.keySet().retainAll(change.getList());
+            streamingSeries.keySet().retainAll(change.getList());
+            if (streamingSeries.isEmpty()) { streamingTimer.stop(); }
         };
 
         // Add selector to chart
@@ -202,6 +257,10 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         chartPlotBackground.widthProperty().addListener(o -> resizeSelector());
         chartPlotBackground.heightProperty().addListener(o -> resizeSelector());
         chartPlotBackground.layoutYProperty().addListener(o -> resizeSelector());
+        // Presses on the paths and on the plot background select the nearest series, hit testing will be done on the data of the series
+        chartPlotBackground.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        addEventHandler(MouseEvent.MOUSE_MOVED, hoverHandler);
+        addEventHandler(MouseEvent.MOUSE_EXITED, hoverHandler);
 
         Path horizontalGridLines = getHorizontalGridLines();
         if (null != horizontalGridLines) { horizontalGridLines.setMouseTransparent(true); }
@@ -209,7 +268,18 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         Path verticalGridLines = getVerticalGridLines();
         if (null != verticalGridLines) { verticalGridLines.setMouseTransparent(true); }
 
-        getChartChildren().addAll(selector);
+        crosshair = new Line();
+        crosshair.setStroke(_selectorStrokeColor);
+        crosshair.setMouseTransparent(true);
+        crosshair.setVisible(false);
+
+        getChartChildren().addAll(crosshair, selector);
+
+        // Canvas that will be used to draw the series in RenderMode.CANVAS
+        canvas = new Canvas();
+        canvas.setVisible(false);
+        canvas.setMouseTransparent(true);
+        getPlotChildren().add(0, canvas);
     }
 
     private void registerListeners() {
@@ -282,6 +352,120 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return subDivisions;
     }
 
+    /**
+     * If true the number of subdivisions per segment will be derived from the on-screen
+     * length and curvature of the segment (see pixelTolerance) instead of using subDivisions
+     * for every segment. Segments outside of the visible x-range will not be subdivided.
+     */
+    public boolean isAdaptiveSubDivisions() { return null == adaptiveSubDivisions ? _adaptiveSubDivisions : adaptiveSubDivisions.get(); }
+    public void setAdaptiveSubDivisions(final boolean ADAPTIVE) {
+        if (null == adaptiveSubDivisions) {
+            _adaptiveSubDivisions = ADAPTIVE;
+            layoutPlotChildren();
+        } else {
+            adaptiveSubDivisions.set(ADAPTIVE);
+        }
+    }
+    public BooleanProperty adaptiveSubDivisionsProperty() {
+        if (null == adaptiveSubDivisions) {
+            adaptiveSubDivisions = new BooleanPropertyBase(_adaptiveSubDivisions) {
+                @Override protected void invalidated() { layoutPlotChildren(); }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "adaptiveSubDivisions"; }
+            };
+        }
+        return adaptiveSubDivisions;
+    }
+
+    /**
+     * The maximum distance in pixels between the smoothed path and the real spline
+     * when adaptiveSubDivisions is true (0.1 - 10 px).
+     */
+    public double getPixelTolerance() { return null == pixelTolerance ? _pixelTolerance : pixelTolerance.get(); }
+    public void setPixelTolerance(final double TOLERANCE) {
+        if (null == pixelTolerance) {
+            _pixelTolerance = Helper.clamp(0.1, 10, TOLERANCE);
+            layoutPlotChildren();
+        } else {
+            pixelTolerance.set(TOLERANCE);
+        }
+    }
+    public DoubleProperty pixelToleranceProperty() {
+        if (null == pixelTolerance) {
+            pixelTolerance = new DoublePropertyBase(_pixelTolerance) {
+                @Override protected void invalidated() {
+                    set(Helper.clamp(0.1, 10, get()));
+                    layoutPlotChildren();
+                }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "pixelTolerance"; }
+            };
+        }
+        return pixelTolerance;
+    }
+
+    /**
+     * Defines if and how series with more points than pixels in x-direction will be
+     * reduced before they will be smoothed.
+     * LTTB:    Largest-Triangle-Three-Buckets, reduces the series to one point per pixel
+     * MIN_MAX: keeps the minimum and the maximum of each pixel column
+     * The symbols of downsampled series will be hidden, the selection will still report
+     * values of the full resolution data.
+     */
+    public Downsampling getDownsampling() { return null == downsampling ? _downsampling : downsampling.get(); }
+    public void setDownsampling(final Downsampling DOWNSAMPLING) {
+        if (null == downsampling) {
+            _downsampling = null == DOWNSAMPLING ? Downsampling.NONE : DOWNSAMPLING;
+            layoutPlotChildren();
+        } else {
+            downsampling.set(DOWNSAMPLING);
+        }
+    }
+    public ObjectProperty<Downsampling> downsamplingProperty() {
+        if (null == downsampling) {
+            downsampling = new ObjectPropertyBase<Downsampling>(_downsampling) {
+                @Override protected void invalidated() {
+                    if (null == get()) { set(Downsampling.NONE); }
+                    layoutPlotChildren();
+                }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "downsampling"; }
+            };
+            _downsampling = null;
+        }
+        return downsampling;
+    }
+
+    /**
+     * Defines if the series will be rendered as Path nodes (PATH) or if all series will be
+     * drawn into one Canvas (CANVAS). In CANVAS mode the paths of the series stay in the scene
+     * graph without elements, so their styling (fill, stroke, stroke width) will be used
+     * to draw the series on the canvas, and they will be mouse transparent.
+     */
+    public RenderMode getRenderMode() { return null == renderMode ? _renderMode : renderMode.get(); }
+    public void setRenderMode(final RenderMode MODE) {
+        if (null == renderMode) {
+            _renderMode = null == MODE ? RenderMode.PATH : MODE;
+            updateRenderMode();
+        } else {
+            renderMode.set(MODE);
+        }
+    }
+    public ObjectProperty<RenderMode> renderModeProperty() {
+        if (null == renderMode) {
+            renderMode = new ObjectPropertyBase<RenderMode>(_renderMode) {
+                @Override protected void invalidated() {
+                    if (null == get()) { set(RenderMode.PATH); }
+                    updateRenderMode();
+                }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "renderMode"; }
+            };
+            _renderMode = null;
+        }
+        return renderMode;
+    }
+
     public boolean isSnapToTicks() { return null == snapToTicks ? _snapToTicks : snapToTicks.get(); }
     public void setSnapToTicks(final boolean SNAP) {
         if (null == snapToTicks) {
@@ -351,6 +535,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         if (null == selectorStrokeColor) {
             _selectorStrokeColor = COLOR;
             selector.setStroke(_selectorStrokeColor);
+            crosshair.setStroke(_selectorStrokeColor);
             layoutPlotChildren();
         } else {
             selectorStrokeColor.set(COLOR);
@@ -361,6 +546,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
             selectorStrokeColor = new ObjectPropertyBase<Color>(_selectorStrokeColor) {
                 @Override protected void invalidated() {
                     selector.setStroke(get());
+                    crosshair.setStroke(get());
                     layoutPlotChildren();
                 }
                 @Override public Object getBean() { return SmoothedChart.this; }
@@ -431,6 +617,30 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return interactive;
     }
 
+    /**
+     * If true a crosshair and the selector will follow the mouse over the plot area and
+     * a SmoothedChartEvent.DATA_HOVERED will be fired with the value of the nearest series
+     */
+    public boolean isHoverTracking() { return null == hoverTracking ? _hoverTracking : hoverTracking.get(); }
+    public void setHoverTracking(final boolean TRACKING) {
+        if (null == hoverTracking) {
+            _hoverTracking = TRACKING;
+            if (!TRACKING) { hideCrosshair(); }
+        } else {
+            hoverTracking.set(TRACKING);
+        }
+    }
+    public BooleanProperty hoverTrackingProperty() {
+        if (null == hoverTracking) {
+            hoverTracking = new BooleanPropertyBase(_hoverTracking) {
+                @Override protected void invalidated() { if (!get()) { hideCrosshair(); } }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "hoverTracking"; }
+            };
+        }
+        return hoverTracking;
+    }
+
     public double getTooltipTimeout() { return null == tooltipTimeout ? _tooltipTimeout : tooltipTimeout.get(); }
     public void setTooltipTimeout(final double TIMEOUT) {
         if (null == tooltipTimeout) {
@@ -701,7 +911,33 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return SERIES.getData().stream().map(node -> (StackPane) node.getNode()).collect(Collectors.toList());
     }
 
+    /**
+     * Adds the given StreamingSeries to the chart. The returned series does not contain
+     * any data, it will only be used for the legend and the styling of the streaming series
+     * (e.g. setSeriesColor()). Changes of the streaming series will be published to the chart
+     * at most once per pulse. Needs axes with a linear mapping like NumberAxis.
+     * @return the series that represents the streaming series in getData()
+     */
+    public Series<X, Y> addStreamingSeries(final StreamingSeries STREAMING_SERIES) {
+        if (!(getXAxis() instanceof ValueAxis) || !(getYAxis() instanceof ValueAxis)) { throw new IllegalArgumentException("Streaming series need value axes"); }
+        Series<X, Y> series = new Series<>();
+        series.setName(STREAMING_SERIES.getName());
+        streamingSeries.put(series, STREAMING_SERIES);
+        getData().add(series);
+        streamingTimer.start();
+        return series;
+    }
+    public void removeStreamingSeries(final StreamingSeries STREAMING_SERIES) {
+        for (Map.Entry<Series<X, Y>, StreamingSeries> entry : streamingSeries.entrySet()) {
+            if (entry.getValue() == STREAMING_SERIES) {
+                getData().remove(entry.getKey());
+                return;
+            }
+        }
+    }
+
     public void dispose() {
+        streamingTimer.stop();
         getData().removeListener(seriesListener);
     }
 
@@ -711,17 +947,162 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return SmoothedChart.class.getResource("smoothed-chart.css").toExternalForm();
     }
 
+    /**
+     * AreaChart keeps the y multiplier that animates a new series private, so the
+     * same animation is done on our own multiplier that is used in smooth()
+     */
+    @Override protected void seriesAdded(final Series<X, Y> SERIES, final int SERIES_INDEX) {
+        super.seriesAdded(SERIES, SERIES_INDEX);
+        if (!shouldAnimate()) { return; }
+        // Might be called from the super constructor before init()
+        if (null == seriesYMultipliers) { seriesYMultipliers = new HashMap<>(); }
+        final DoubleProperty multiplier = new SimpleDoubleProperty(this, "seriesYMultiplier", 0);
+        seriesYMultipliers.put(SERIES, multiplier);
+        animate(new Timeline(new KeyFrame(Duration.ZERO, new KeyValue(multiplier, 0)),
+                             new KeyFrame(Duration.millis(500), e -> {
+                                 seriesYMultipliers.remove(SERIES, multiplier);
+                                 requestChartLayout();
+                             }, new KeyValue(multiplier, 1))));
+    }
+
+    @Override protected void seriesRemoved(final Series<X, Y> SERIES) {
+        if (null != seriesYMultipliers) { seriesYMultipliers.remove(SERIES); }
+        super.seriesRemoved(SERIES);
+    }
+
+    private double getSeriesYMultiplier(final Series<X, Y> SERIES) {
+        final DoubleProperty multiplier = null == seriesYMultipliers ? null : seriesYMultipliers.get(SERIES);
+        return null == multiplier ? 1 : multiplier.get();
+    }
+
+    private double getYDisplayPosition(final Axis<Y> Y_AXIS, final Y VALUE, final double MULTIPLIER) {
+        if (1 == MULTIPLIER) { return Y_AXIS.getDisplayPosition(VALUE); }
+        return Y_AXIS.getDisplayPosition(Y_AXIS.toRealValue(Y_AXIS.toNumericValue(VALUE) * MULTIPLIER));
+    }
+
+    /**
+     * Adds the range of the streaming series to the data of the auto ranging axes.
+     * Streaming series need value axes, so only the minimum and the maximum of all
+     * values are passed to the axes instead of every single value.
+     */
+    @Override protected void updateAxisRange() {
+        if (null == streamingSeries || streamingSeries.isEmpty()) {
+            super.updateAxisRange();
+            return;
+        }
+        final Axis<X> xAxis = getXAxis();
+        final Axis<Y> yAxis = getYAxis();
+        if (!xAxis.isAutoRanging() && !yAxis.isAutoRanging()) { return; }
+        double minX       = Double.MAX_VALUE;
+        double maxX       = -Double.MAX_VALUE;
+        double minY       = Double.MAX_VALUE;
+        double maxY       = -Double.MAX_VALUE;
+        int    noOfValues = 0;
+        for (Series<X, Y> series : getData()) {
+            for (Data<X, Y> data : series.getData()) {
+                double x = xAxis.toNumericValue(data.getXValue());
+                double y = yAxis.toNumericValue(data.getYValue());
+                if (x < minX) { minX = x; }
+                if (x > maxX) { maxX = x; }
+                if (y < minY) { minY = y; }
+                if (y > maxY) { maxY = y; }
+                noOfValues++;
+            }
+        }
+        for (StreamingSeries series : streamingSeries.values()) {
+            if (series.isEmpty()) { continue; }
+            minX = Math.min(minX, series.getMinX());
+            maxX = Math.max(maxX, series.getMaxX());
+            if (!Double.isNaN(series.getMinY())) {
+                minY = Math.min(minY, series.getMinY());
+                maxY = Math.max(maxY, series.getMaxY());
+            }
+            noOfValues += series.getSize();
+        }
+        if (0 == noOfValues || minX > maxX || minY > maxY) { return; }
+        // Like AreaChart a single value of 0 will not change the range of an axis
+        if (xAxis.isAutoRanging() && !(1 == noOfValues && 0 == minX)) { xAxis.invalidateRange(Arrays.asList(xAxis.toRealValue(minX), xAxis.toRealValue(maxX))); }
+        if (yAxis.isAutoRanging() && !(1 == noOfValues && 0 == minY)) { yAxis.invalidateRange(Arrays.asList(yAxis.toRealValue(minY), yAxis.toRealValue(maxY))); }
+    }
+
+    /**
+     * Called once per pulse while streaming series are attached, updates the axis
+     * ranges and requests a layout if at least one of the streaming series changed.
+     */
+    private void publishStreamingSeries() {
+        boolean dirty = false;
+        for (StreamingSeries series : streamingSeries.values()) {
+            if (series.isDirty()) {
+                dirty = true;
+                break;
+            }
+        }
+        if (!dirty) { return; }
+        updateAxisRange();
+        requestChartLayout();
+    }
+
     @Override protected void layoutPlotChildren() {
-        super.layoutPlotChildren();
+        final boolean drawOnCanvas = RenderMode.CANVAS == getRenderMode();
+        if (!isSmoothed() && !drawOnCanvas) { super.layoutPlotChildren(); }
 
         double height = getLayoutBounds().getHeight();
         getData().forEach(series -> {
             final Path[] paths = getPaths(series);
             if (null == paths) { return; }
-            if (isSmoothed()) { smooth(paths[1].getElements(), paths[0].getElements(), height); }
+            if (isSmoothed() || drawOnCanvas || streamingSeries.containsKey(series)) {
+                smooth(series, paths, height);
+            } else {
+                updateIndex(series);
+            }
             paths[0].setVisible(ChartType.AREA == getChartType());
             paths[0].setManaged(ChartType.AREA == getChartType());
         });
+        if (drawOnCanvas) { drawCanvas(); }
+    }
+
+    private void updateRenderMode() {
+        final boolean drawOnCanvas = RenderMode.CANVAS == getRenderMode();
+        if (!drawOnCanvas) { canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight()); }
+        canvas.setVisible(drawOnCanvas);
+        getData().forEach(series -> {
+            final Path[] paths = getPaths(series);
+            if (null == paths) { return; }
+            paths[0].setMouseTransparent(drawOnCanvas);
+            paths[1].setMouseTransparent(drawOnCanvas);
+        });
+        layoutPlotChildren();
+    }
+
+    /**
+     * Draws the smoothed points of all series on the canvas by using the fill, stroke
+     * and stroke width of the (empty) fill and stroke paths of each series.
+     */
+    private void drawCanvas() {
+        if (RenderMode.CANVAS != getRenderMode()) { return; }
+        final double width  = getXAxis().getWidth();
+        final double height = getYAxis().getHeight();
+        if (canvas.getWidth() != width)   { canvas.setWidth(width); }
+        if (canvas.getHeight() != height) { canvas.setHeight(height); }
+
+        final GraphicsContext ctx        = canvas.getGraphicsContext2D();
+        final double          fillHeight = getLayoutBounds().getHeight();
+        final boolean         area       = ChartType.AREA == getChartType();
+        ctx.clearRect(0, 0, width, height);
+        for (Series<X, Y> series : getData()) {
+            final Path[]     paths      = getPaths(series);
+            final SeriesPath seriesPath = seriesPaths.get(series);
+            if (null == paths || null == seriesPath || !series.getNode().isVisible()) { continue; }
+            if (area) {
+                ctx.setFill(paths[0].getFill());
+                seriesPath.fill(ctx, fillHeight);
+            }
+            ctx.setStroke(paths[1].getStroke());
+            ctx.setLineWidth(paths[1].getStrokeWidth());
+            ctx.setLineCap(paths[1].getStrokeLineCap());
+            ctx.setLineJoin(paths[1].getStrokeLineJoin());
+            seriesPath.stroke(ctx);
+        }
     }
 
     /**
@@ -743,6 +1124,50 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
                             /* StrokePath */ (Path) (seriesGroup).getChildren().get(1) };
     }
 
+    /**
+     * Returns the series at the given position in the plot area by using the display
+     * positions of the data. In AREA mode the topmost series whose area contains the
+     * position will be returned, in LINE mode the series with the line nearest to the
+     * position (within the stroke width or selector size).
+     */
+    private Series<X, Y> getSeriesAt(final double X, final double Y) {
+        if (ChartType.AREA == getChartType()) {
+            Series<X, Y> series = null;
+            for (Series<X, Y> s : getData()) {
+                SeriesPath seriesPath = seriesPaths.get(s);
+                if (null == seriesPath) { continue; }
+                if (Y >= seriesPath.getYAt(X)) { series = s; }
+            }
+            return series;
+        }
+        Series<X, Y> series = getNearestSeries(X, Y);
+        if (null == series) { return null; }
+        Path[] paths    = getPaths(series);
+        double distance = Math.abs(Y - seriesPaths.get(series).getYAt(X));
+        return distance <= Math.max(null == paths ? 0 : paths[1].getStrokeWidth(), getSelectorSize()) * 0.5 ? series : null;
+    }
+
+    /**
+     * Returns the series with the smallest vertical distance to the given position
+     * in the plot area or null if no series contains data at X
+     */
+    private Series<X, Y> getNearestSeries(final double X, final double Y) {
+        Series<X, Y> series      = null;
+        double       minDistance = Double.MAX_VALUE;
+        for (Series<X, Y> s : getData()) {
+            SeriesPath seriesPath = seriesPaths.get(s);
+            if (null == seriesPath) { continue; }
+            double y = seriesPath.getYAt(X);
+            if (Double.isNaN(y)) { continue; }
+            double distance = Math.abs(Y - y);
+            if (distance < minDistance) {
+                minDistance = distance;
+                series      = s;
+            }
+        }
+        return series;
+    }
+
     private void resizeSelector() {
         selectorTooltip.hide();
         selector.setVisible(false);
@@ -761,40 +1186,22 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
         if (!(getYAxis() instanceof NumberAxis)) { return; }
 
-        double            upperBound   = ((NumberAxis) getYAxis()).getUpperBound();
-        double            lowerBound   = ((NumberAxis) getYAxis()).getLowerBound();
-        double            range        = upperBound - lowerBound;
-        double            factor       = range / getYAxis().getLayoutBounds().getHeight();
-        List<PathElement> elements     = null;
-        int               noOfElements = 0;
-        Bounds            pathBounds   = null;
-        double            pathMinX     = 0;
-        double            pathWidth    = 0;
-        PathElement       lastElement  = null;
-
-        Series<X, Y> series = null;
-        for (Series<X, Y> s : getData()) {
-            Path[] paths = getPaths(s);
-            int type = getChartType().ordinal(); // AREA == 0, LINE == 1 in ChartType enum
-            if (paths[type].contains(EVENT_X, EVENT_Y)) {
-                series       = s;
-                elements     = paths[type].getElements();
-                noOfElements = elements.size();
-                lastElement  = elements.get(0);
-                pathBounds   = paths[1].getLayoutBounds();
-                pathMinX     = pathBounds.getMinX();
-                pathWidth    = pathBounds.getWidth();
-                break;
-            }
-        }
+        double upperBound = ((NumberAxis) getYAxis()).getUpperBound();
+        double lowerBound = ((NumberAxis) getYAxis()).getLowerBound();
+        double range      = upperBound - lowerBound;
 
-        if (null == series || series.getData().isEmpty()) { return; }
+        Series<X, Y> series = getSeriesAt(EVENT_X, EVENT_Y);
+        if (null == series) { return; }
+        SeriesPath seriesPath = seriesPaths.get(series);
 
-        if (isSnapToTicks()) {
+        // Streaming series have no data objects to snap to
+        if (isSnapToTicks() && !series.getData().isEmpty()) {
+            double     pathMinX         = seriesPath.getRawX(0);
+            double     pathWidth        = seriesPath.getRawX(seriesPath.getNoOfRawPoints() - 1) - pathMinX;
             double     reverseFactor    = CHART_HEIGHT / range;
             int        noOfDataElements = series.getData().size();
             double     interval         = pathWidth / (double) (noOfDataElements - 1);
-            int        selectedIndex    = Helper.roundDoubleToInt((EVENT_X - pathMinX) / interval);
+            int        selectedIndex    = Helper.clamp(0, noOfDataElements - 1, Helper.roundDoubleToInt((EVENT_X - pathMinX) / interval));
             Data<X, Y> selectedData     = series.getData().get(selectedIndex);
             Y          selectedYValue   = selectedData.getYValue();
 
@@ -815,85 +1222,203 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
             fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
         } else {
-            for (int i = 1; i < noOfElements; i++) {
-                PathElement element = elements.get(i);
-
-                double[] xy  = getXYFromPathElement(lastElement);
-                double[] xy1 = getXYFromPathElement(element);
-                if (xy[0] < 0 || xy[1] < 0 || xy1[0] < 0 || xy1[1] < 0) { continue; }
-
-                if (EVENT_X > xy[0] && EVENT_X < xy1[0]) {
-                    double deltaX        = xy1[0] - xy[0];
-                    double deltaY        = xy1[1] - xy[1];
-                    double m             = deltaY / deltaX;
-                    double y             = m * (EVT.getX() - xy[0]) + xy[1];
-                    double selectedValue = ((getYAxis().getLayoutBounds().getHeight() - y) * factor + lowerBound);
-
-                    selector.setCenterX(CHART_X + EVT.getX());
-                    selector.setCenterY(CHART_MIN_Y + y);
-                    selector.setVisible(true);
-                    fadeInFadeOut.playFrom(Duration.millis(0));
-
-                    Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
-                    String  tooltipText     = new StringBuilder(String.format(Locale.US, formatString, selectedValue)).toString();
-                    selectorTooltip.setText(tooltipText);
-                    selectorTooltip.setX(tooltipLocation.getX());
-                    selectorTooltip.setY(tooltipLocation.getY());
-                    selectorTooltip.show(getScene().getWindow());
-
-                    fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
-                    break;
-                }
-                lastElement = element;
-            }
+            double y = seriesPath.getYAt(EVENT_X);
+            if (Double.isNaN(y)) { return; }
+
+            double selectedValue = getYValueForDisplay(y);
+
+            selector.setCenterX(CHART_X + EVENT_X);
+            selector.setCenterY(CHART_MIN_Y + y);
+            selector.setVisible(true);
+            fadeInFadeOut.playFrom(Duration.millis(0));
+
+            Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
+            String  tooltipText     = new StringBuilder(String.format(Locale.US, formatString, selectedValue)).toString();
+            selectorTooltip.setText(tooltipText);
+            selectorTooltip.setX(tooltipLocation.getX());
+            selectorTooltip.setY(tooltipLocation.getY());
+            selectorTooltip.show(getScene().getWindow());
+
+            fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
         }
     }
 
-    private void smooth(ObservableList<PathElement> strokeElements, ObservableList<PathElement> fillElements, final double HEIGHT) {
-        if (fillElements.isEmpty()) return;
-        // as we do not have direct access to the data, first recreate the list of all the data points we have
-        final Point2D[] dataPoints = new Point2D[strokeElements.size()];
-        for (int i = 0; i < strokeElements.size(); i++) {
-            final PathElement element = strokeElements.get(i);
-            if (element instanceof MoveTo) {
-                final MoveTo move = (MoveTo) element;
-                dataPoints[i] = new Point2D(move.getX(), move.getY());
-            } else if (element instanceof LineTo) {
-                final LineTo line = (LineTo) element;
-                final double x = line.getX(), y = line.getY();
-                dataPoints[i] = new Point2D(x, y);
-            }
+    /**
+     * Moves the crosshair and the selector to the mouse position and the nearest series.
+     * Only the display positions of the series will be used, so this is cheap enough to
+     * be called on every MOUSE_MOVED event.
+     */
+    private void track(final MouseEvent EVT) {
+        if (!isHoverTracking()) { return; }
+        if (MouseEvent.MOUSE_EXITED == EVT.getEventType()) {
+            hideCrosshair();
+            return;
         }
-        double firstX = dataPoints[0].getX();
-        double lastX  = dataPoints[dataPoints.length - 1].getX();
 
-        Point2D[] points = Helper.subdividePoints(dataPoints, getSubDivisions());
+        final Bounds  plotBounds = chartPlotBackground.getBoundsInParent();
+        final Point2D position   = chartPlotBackground.sceneToLocal(EVT.getSceneX(), EVT.getSceneY());
+        final double  x          = position.getX();
+        final double  y          = position.getY();
+        if (x < 0 || y < 0 || x > plotBounds.getWidth() || y > plotBounds.getHeight()) {
+            hideCrosshair();
+            return;
+        }
 
-        fillElements.clear();
-        fillElements.add(new MoveTo(firstX, HEIGHT));
+        crosshair.setStartX(plotBounds.getMinX() + x);
+        crosshair.setStartY(plotBounds.getMinY());
+        crosshair.setEndX(plotBounds.getMinX() + x);
+        crosshair.setEndY(plotBounds.getMaxY());
+        crosshair.setVisible(true);
+
+        final Series<X, Y> series  = getNearestSeries(x, y);
+        final double       seriesY = null == series ? Double.NaN : seriesPaths.get(series).getYAt(x);
+        if (Double.isNaN(seriesY)) {
+            selector.setVisible(false);
+            return;
+        }
+        fadeInFadeOut.stop();
+        selector.setOpacity(1);
+        selector.setCenterX(plotBounds.getMinX() + x);
+        selector.setCenterY(plotBounds.getMinY() + seriesY);
+        selector.setVisible(true);
+
+        if (getYAxis() instanceof NumberAxis) {
+            fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_HOVERED, getYValueForDisplay(seriesY)));
+        }
+    }
 
-        strokeElements.clear();
-        strokeElements.add(new MoveTo(points[0].getX(), points[0].getY()));
+    private void hideCrosshair() {
+        if (null == crosshair || !crosshair.isVisible()) { return; }
+        crosshair.setVisible(false);
+        selector.setVisible(false);
+    }
 
-        for (Point2D p : points) {
-            if (Double.compare(p.getX(), firstX) >= 0) {
-                fillElements.add(new LineTo(p.getX(), p.getY()));
-                strokeElements.add(new LineTo(p.getX(), p.getY()));
-            }
+    private double getYValueForDisplay(final double Y) {
+        double upperBound = ((NumberAxis) getYAxis()).getUpperBound();
+        double lowerBound = ((NumberAxis) getYAxis()).getLowerBound();
+        double factor     = (upperBound - lowerBound) / getYAxis().getLayoutBounds().getHeight();
+        return (getYAxis().getLayoutBounds().getHeight() - Y) * factor + lowerBound;
+    }
+
+    /**
+     * Collects the display positions of the series for the selection if the series
+     * will be drawn by AreaChart.layoutPlotChildren()
+     */
+    private void updateIndex(final Series<X, Y> SERIES) {
+        final Axis<X>    xAxis      = getXAxis();
+        final Axis<Y>    yAxis      = getYAxis();
+        final SeriesPath seriesPath  = getSeriesPath(SERIES);
+        final double     yMultiplier = getSeriesYMultiplier(SERIES);
+        seriesPath.reset();
+        for (Iterator<Data<X, Y>> iterator = getDisplayedDataIterator(SERIES) ; iterator.hasNext() ; ) {
+            Data<X, Y> item = iterator.next();
+            double     x    = xAxis.getDisplayPosition(getCurrentDisplayedXValue(item));
+            double     y    = getYDisplayPosition(yAxis, getCurrentDisplayedYValue(item), yMultiplier);
+            if (Double.isNaN(x) || Double.isNaN(y)) { continue; }
+            seriesPath.add(x, y);
         }
+        seriesPath.sortByX();
+    }
 
-        fillElements.add(new LineTo(lastX, HEIGHT));
-        fillElements.add(new LineTo(0, HEIGHT));
-        fillElements.add(new ClosePath());
+    private SeriesPath getSeriesPath(final Series<X, Y> SERIES) {
+        SeriesPath seriesPath = seriesPaths.get(SERIES);
+        if (null == seriesPath) {
+            seriesPath = new SeriesPath();
+            seriesPaths.put(SERIES, seriesPath);
+        }
+        return seriesPath;
+    }
+
+    /**
+     * Hides the symbols of the series as long as the downsampling really reduced its
+     * points, otherwise the symbols will be placed at the display position of their data.
+     */
+    private void layoutSymbols(final Series<X, Y> SERIES, final SeriesPath SERIES_PATH, final double Y_MULTIPLIER) {
+        final boolean hideSymbols = SERIES_PATH.isDownsampled();
+        if (hideSymbols && !SERIES_PATH.isSymbolsHidden()) {
+            Node firstSymbol = SERIES.getData().isEmpty() ? null : SERIES.getData().get(0).getNode();
+            SERIES_PATH.hideSymbols(null != firstSymbol && firstSymbol.isVisible());
+        } else if (!hideSymbols && SERIES_PATH.isSymbolsHidden()) {
+            setSymbolsVisible(SERIES, SERIES_PATH.showSymbols());
+        }
+        final Axis<X> xAxis = getXAxis();
+        final Axis<Y> yAxis = getYAxis();
+        for (Iterator<Data<X, Y>> iterator = getDisplayedDataIterator(SERIES) ; iterator.hasNext() ; ) {
+            Data<X, Y> item   = iterator.next();
+            Node       symbol = item.getNode();
+            if (null == symbol) { continue; }
+            if (hideSymbols) {
+                if (symbol.isVisible()) { symbol.setVisible(false); }
+                continue;
+            }
+            double x = xAxis.getDisplayPosition(getCurrentDisplayedXValue(item));
+            double y = getYDisplayPosition(yAxis, getCurrentDisplayedYValue(item), Y_MULTIPLIER);
+            double w = symbol.prefWidth(-1);
+            double h = symbol.prefHeight(-1);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                symbol.resizeRelocate(-w * 2, -h * 2, w, h);
+            } else {
+                symbol.resizeRelocate(x - (w * 0.5), y - (h * 0.5), w, h);
+            }
+        }
     }
 
-    private double[] getXYFromPathElement(final PathElement ELEMENT) {
-        if (ELEMENT instanceof MoveTo) {
-            return new double[]{ ((MoveTo) ELEMENT).getX(), ((MoveTo) ELEMENT).getY() };
-        } else if (ELEMENT instanceof LineTo) {
-            return new double[] { ((LineTo) ELEMENT).getX(), ((LineTo) ELEMENT).getY() };
+    /**
+     * Replaces AreaChart.layoutPlotChildren() for smoothed series. The display positions
+     * of the data are collected in the primitive arrays of the SeriesPath which also
+     * reuses the existing path elements, so a layout pass does not create new objects
+     * as long as the number of data points does not change. As in AreaChart the y values
+     * are scaled by the animated series multiplier and only the nearest point outside
+     * of each side of the x axis is kept.
+     */
+    private void smooth(final Series<X, Y> SERIES, final Path[] PATHS, final double HEIGHT) {
+        final Axis<X>    xAxis      = getXAxis();
+        final Axis<Y>    yAxis      = getYAxis();
+        final SeriesPath seriesPath = getSeriesPath(SERIES);
+
+        final double       width        = xAxis.getWidth();
+        final Downsampling downsampling = width > 0 ? getDownsampling() : Downsampling.NONE;
+
+        final StreamingSeries streaming   = streamingSeries.get(SERIES);
+        final double          yMultiplier = getSeriesYMultiplier(SERIES);
+        seriesPath.reset();
+        if (null != streaming) {
+            // Value axes map linear, so two display positions are enough to map all points
+            final double xOffset = xAxis.getDisplayPosition(xAxis.toRealValue(0));
+            final double xScale  = xAxis.getDisplayPosition(xAxis.toRealValue(1)) - xOffset;
+            final double yOffset = yAxis.getDisplayPosition(yAxis.toRealValue(0));
+            final double yScale  = yAxis.getDisplayPosition(yAxis.toRealValue(1)) - yOffset;
+            streaming.addTo(seriesPath, xOffset, xScale, yOffset, yScale * yMultiplier);
+        }
+        for (Iterator<Data<X, Y>> iterator = getDisplayedDataIterator(SERIES) ; iterator.hasNext() ; ) {
+            Data<X, Y> item = iterator.next();
+            double     x    = xAxis.getDisplayPosition(getCurrentDisplayedXValue(item));
+            double     y    = getYDisplayPosition(yAxis, getCurrentDisplayedYValue(item), yMultiplier);
+            if (Double.isNaN(x) || Double.isNaN(y)) { continue; }
+            seriesPath.add(x, y);
+        }
+        seriesPath.sortByX();
+        // Like AreaChart only keep the nearest point outside of each side of the x axis
+        final double halfLineWidth = PATHS[1].getStrokeWidth() * 0.5;
+        seriesPath.clipX(-halfLineWidth, width + halfLineWidth);
+        switch(downsampling) {
+            case LTTB   : seriesPath.downsampleLTTB((int) Math.ceil(width)); break;
+            case MIN_MAX: seriesPath.downsampleMinMax(1.0); break;
+            case NONE   :
+            default     : break;
+        }
+        layoutSymbols(SERIES, seriesPath, yMultiplier);
+        if (!isSmoothed()) {
+            seriesPath.smooth(1);
+        } else if (isAdaptiveSubDivisions()) {
+            seriesPath.smooth(MAX_SUBDIVISIONS, getPixelTolerance(), 0, getXAxis().getWidth());
+        } else {
+            seriesPath.smooth(getSubDivisions());
+        }
+        if (RenderMode.CANVAS == getRenderMode()) {
+            seriesPath.clear(PATHS[0], PATHS[1]);
         } else {
-            return new double[] { -1, -1 };
+            seriesPath.apply(PATHS[0], PATHS[1], HEIGHT);
         }
     }
 }
@@ -29,6 +29,7 @@ import javafx.event.EventType;
  */
 public class SmoothedChartEvent extends Event {
     public static final EventType<SmoothedChartEvent> DATA_SELECTED  = new EventType<>(ANY, "DATA_SELECTED");
+    public static final EventType<SmoothedChartEvent> DATA_HOVERED   = new EventType<>(ANY, "DATA_HOVERED");
     private final double yValue;
 
     // ******************** Constructors **************************************
@@ -0,0 +1,206 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.smoothedchart;
+
+
+/**
+ * A series that keeps the last CAPACITY points in a primitive ring buffer.
+ * Points can be added from any thread, the SmoothedChart the series was added
+ * to (see SmoothedChart.addStreamingSeries()) will pick up the changes at most
+ * once per pulse. The x values are expected to be in ascending order.
+ */
+public class StreamingSeries {
+    private final    String         name;
+    private final    int            capacity;
+    private final    double[]       xs;
+    private final    double[]       ys;
+    private          int            head;
+    private          int            size;
+    private          long           nextSequence;
+    private final    MonotonicDeque minYs;
+    private final    MonotonicDeque maxYs;
+    private volatile boolean        dirty;
+
+
+    // ******************** Constructors **************************************
+    public StreamingSeries(final String NAME, final int CAPACITY) {
+        if (CAPACITY < 1) { throw new IllegalArgumentException("Capacity must be > 0"); }
+        name     = NAME;
+        capacity = CAPACITY;
+        xs       = new double[CAPACITY];
+        ys       = new double[CAPACITY];
+        head     = 0;
+        size     = 0;
+        minYs    = new MonotonicDeque(CAPACITY, false);
+        maxYs    = new MonotonicDeque(CAPACITY, true);
+        dirty    = false;
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getName() { return name; }
+
+    public int getCapacity() { return capacity; }
+
+    public synchronized int getSize() { return size; }
+
+    public synchronized boolean isEmpty() { return 0 == size; }
+
+    /**
+     * Adds the given point, if the buffer is full the oldest point will be removed
+     */
+    public synchronized void add(final double X, final double Y) {
+        int tail = (head + size) % capacity;
+        xs[tail] = X;
+        ys[tail] = Y;
+        if (size < capacity) {
+            size++;
+        } else {
+            head = (head + 1) % capacity;
+        }
+        addExtremum(Y);
+        dirty = true;
+    }
+
+    public void addAll(final double[] XS, final double[] YS) { addAll(XS, YS, 0, Math.min(XS.length, YS.length)); }
+    /**
+     * Adds LENGTH points starting at OFFSET of the given arrays in one step, if the
+     * buffer is full the oldest points will be removed
+     */
+    public synchronized void addAll(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        if (LENGTH <= 0) { return; }
+        int length = Math.min(LENGTH, capacity);
+        int offset = OFFSET + LENGTH - length;
+        int tail   = (head + size) % capacity;
+        int first  = Math.min(length, capacity - tail);
+        System.arraycopy(XS, offset, xs, tail, first);
+        System.arraycopy(YS, offset, ys, tail, first);
+        if (first < length) {
+            System.arraycopy(XS, offset + first, xs, 0, length - first);
+            System.arraycopy(YS, offset + first, ys, 0, length - first);
+        }
+        size  = Math.min(capacity, size + length);
+        head  = (tail + length - size + capacity) % capacity;
+        for (int i = offset ; i < offset + length ; i++) { addExtremum(YS[i]); }
+        dirty = true;
+    }
+
+    public synchronized void clear() {
+        head  = 0;
+        size  = 0;
+        minYs.clear();
+        maxYs.clear();
+        dirty = true;
+    }
+
+    public synchronized double getX(final int INDEX) { return xs[(head + INDEX) % capacity]; }
+
+    public synchronized double getY(final int INDEX) { return ys[(head + INDEX) % capacity]; }
+
+    public synchronized double getMinX() { return 0 == size ? Double.NaN : xs[head]; }
+
+    public synchronized double getMaxX() { return 0 == size ? Double.NaN : xs[(head + size - 1) % capacity]; }
+
+    public synchronized double getMinY() { return minYs.isEmpty() ? Double.NaN : minYs.peekFirst(); }
+
+    public synchronized double getMaxY() { return maxYs.isEmpty() ? Double.NaN : maxYs.peekFirst(); }
+
+    /**
+     * Returns true if points have been added or removed since the last
+     * call of addTo()
+     */
+    boolean isDirty() { return dirty; }
+
+    /**
+     * Adds the display positions of all points to the given SeriesPath by using
+     * a linear mapping (display = offset + value * scale) for both axes.
+     */
+    synchronized void addTo(final SeriesPath SERIES_PATH, final double X_OFFSET, final double X_SCALE, final double Y_OFFSET, final double Y_SCALE) {
+        for (int i = 0 ; i < size ; i++) {
+            int index = (head + i) % capacity;
+            SERIES_PATH.add(X_OFFSET + xs[index] * X_SCALE, Y_OFFSET + ys[index] * Y_SCALE);
+        }
+        dirty = false;
+    }
+
+    /**
+     * Adds the y value of the point with the next sequence number to the extrema
+     * after the points that are no longer in the buffer have been removed from them
+     */
+    private void addExtremum(final double Y) {
+        long oldest = nextSequence + 1 - size;
+        minYs.removeBefore(oldest);
+        maxYs.removeBefore(oldest);
+        if (!Double.isNaN(Y)) {
+            minYs.add(nextSequence, Y);
+            maxYs.add(nextSequence, Y);
+        }
+        nextSequence++;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Keeps the candidates for the minimum (or maximum) of the points in the buffer
+     * in a ring buffer, the first entry is always the current extremum.
+     */
+    private static class MonotonicDeque {
+        private final boolean  max;
+        private final long[]   sequences;
+        private final double[] values;
+        private       int      head;
+        private       int      size;
+
+
+        MonotonicDeque(final int CAPACITY, final boolean MAX) {
+            max       = MAX;
+            sequences = new long[CAPACITY];
+            values    = new double[CAPACITY];
+        }
+
+
+        boolean isEmpty() { return 0 == size; }
+
+        double peekFirst() { return values[head]; }
+
+        void add(final long SEQUENCE, final double VALUE) {
+            // Remove all entries from the tail that can never become the extremum again
+            while (size > 0) {
+                double last = values[(head + size - 1) % values.length];
+                if (max ? last > VALUE : last < VALUE) { break; }
+                size--;
+            }
+            int tail = (head + size) % values.length;
+            sequences[tail] = SEQUENCE;
+            values[tail]    = VALUE;
+            size++;
+        }
+
+        void removeBefore(final long SEQUENCE) {
+            while (size > 0 && sequences[head] < SEQUENCE) {
+                head = (head + 1) % values.length;
+                size--;
+            }
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
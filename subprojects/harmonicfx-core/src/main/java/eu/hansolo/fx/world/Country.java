@@ -19,6 +19,7 @@ package eu.hansolo.fx.world;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -287,9 +288,18 @@ public enum Country {
     private ValueObject            value;
 
     Country(final String... PATH_STRINGS) {
-        paths = new ArrayList<>(Arrays.asList(PATH_STRINGS));
+        paths = Collections.unmodifiableList(Arrays.asList(PATH_STRINGS));
         value = null;
     }
+    /**
+     * Returns the preprocessed outlines of this country, they are loaded from
+     * a binary resource on the first call. They are used by the World in
+     * RenderMode.CANVAS, the node based World uses getPaths() instead.
+     */
+    public List<CountryGeometry> getGeometries() { return WorldGeometry.get(this); }
+
+    List<String> getPathData() { return paths; }
+
     public List<CountryPath> getPaths(){
         List<CountryPath> cPaths=new ArrayList<>();
         for(String path : this.paths){
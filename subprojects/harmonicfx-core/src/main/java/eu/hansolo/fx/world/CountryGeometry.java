@@ -0,0 +1,244 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.world;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * The outline of one path of a country in a compact form. The path is stored
+ * as command bytes (MOVE_TO, LINE_TO, CLOSE) together with the absolute
+ * coordinates of all MOVE_TO and LINE_TO commands as x,y float pairs.
+ */
+public final class CountryGeometry {
+    public  static final byte    MOVE_TO = 0;
+    public  static final byte    LINE_TO = 1;
+    public  static final byte    CLOSE   = 2;
+    private        final byte[]  commands;
+    private        final float[] coords;
+    private        final float   minX;
+    private        final float   minY;
+    private        final float   maxX;
+    private        final float   maxY;
+
+
+    // ******************** Constructors **************************************
+    CountryGeometry(final byte[] COMMANDS, final float[] COORDS) {
+        commands = COMMANDS;
+        coords   = COORDS;
+        float x0 = Float.MAX_VALUE;
+        float y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float y1 = -Float.MAX_VALUE;
+        for (int i = 0 ; i < COORDS.length ; i += 2) {
+            x0 = Math.min(x0, COORDS[i]);
+            y0 = Math.min(y0, COORDS[i + 1]);
+            x1 = Math.max(x1, COORDS[i]);
+            y1 = Math.max(y1, COORDS[i + 1]);
+        }
+        minX = COORDS.length > 0 ? x0 : 0;
+        minY = COORDS.length > 0 ? y0 : 0;
+        maxX = COORDS.length > 0 ? x1 : 0;
+        maxY = COORDS.length > 0 ? y1 : 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getNoOfCommands() { return commands.length; }
+
+    public byte getCommand(final int INDEX) { return commands[INDEX]; }
+
+    public int getNoOfPoints() { return coords.length / 2; }
+
+    public float getX(final int INDEX) { return coords[INDEX * 2]; }
+
+    public float getY(final int INDEX) { return coords[INDEX * 2 + 1]; }
+
+    public float getMinX() { return minX; }
+    public float getMinY() { return minY; }
+    public float getMaxX() { return maxX; }
+    public float getMaxY() { return maxY; }
+
+    public boolean containsBounds(final double X, final double Y) { return X >= minX && X <= maxX && Y >= minY && Y <= maxY; }
+
+    /**
+     * Returns true if the given point is inside of the outline by using the
+     * non zero winding rule (the default fill rule of SVGPath and Canvas).
+     * Open sub paths are treated as if they would be closed.
+     */
+    public boolean contains(final double X, final double Y) {
+        if (!containsBounds(X, Y)) { return false; }
+        int winding = 0;
+        int point   = 0;
+        int start   = -1;
+        for (byte command : commands) {
+            if (CLOSE == command) { continue; }
+            if (MOVE_TO == command) {
+                if (start >= 0) { winding += winding(point - 1, start, X, Y); }
+                start = point;
+            } else {
+                winding += winding(point - 1, point, X, Y);
+            }
+            point++;
+        }
+        if (start >= 0) { winding += winding(point - 1, start, X, Y); }
+        return winding != 0;
+    }
+
+    byte[] getCommands() { return commands; }
+
+    float[] getCoords() { return coords; }
+
+    /**
+     * Parses the given svg path data, only the commands that are used by the
+     * Country outlines (M, L, H, V, Z in absolute and relative form) are supported.
+     */
+    public static CountryGeometry parse(final String PATH_DATA) {
+        byte[]  cmds      = new byte[64];
+        float[] pts       = new float[128];
+        int     noOfCmds  = 0;
+        int     noOfPts   = 0;
+        double  x         = 0;
+        double  y         = 0;
+        double  startX    = 0;
+        double  startY    = 0;
+        char    command   = ' ';
+        int     length    = PATH_DATA.length();
+        int[]   position  = { 0 };
+        while (true) {
+            skipSeparators(PATH_DATA, position);
+            if (position[0] >= length) { break; }
+            char c = PATH_DATA.charAt(position[0]);
+            if (Character.isLetter(c)) {
+                command = c;
+                position[0]++;
+            } else if (command == ' ') {
+                throw new IllegalArgumentException("Path data has to start with a command: " + PATH_DATA);
+            }
+            boolean isClose = command == 'Z' || command == 'z';
+            if (noOfCmds == cmds.length) { cmds = Arrays.copyOf(cmds, noOfCmds * 2); }
+            if (!isClose && noOfPts + 2 > pts.length) { pts = Arrays.copyOf(pts, pts.length * 2); }
+            switch(command) {
+                case 'M':
+                case 'm':
+                    boolean relative = command == 'm';
+                    x      = (relative ? x : 0) + parseNumber(PATH_DATA, position);
+                    y      = (relative ? y : 0) + parseNumber(PATH_DATA, position);
+                    startX = x;
+                    startY = y;
+                    cmds[noOfCmds++] = MOVE_TO;
+                    // Coordinate pairs following a move to are implicit line to commands
+                    command = relative ? 'l' : 'L';
+                    break;
+                case 'L': x = parseNumber(PATH_DATA, position);     y = parseNumber(PATH_DATA, position);     cmds[noOfCmds++] = LINE_TO; break;
+                case 'l': x += parseNumber(PATH_DATA, position);    y += parseNumber(PATH_DATA, position);    cmds[noOfCmds++] = LINE_TO; break;
+                case 'H': x = parseNumber(PATH_DATA, position);     cmds[noOfCmds++] = LINE_TO; break;
+                case 'h': x += parseNumber(PATH_DATA, position);    cmds[noOfCmds++] = LINE_TO; break;
+                case 'V': y = parseNumber(PATH_DATA, position);     cmds[noOfCmds++] = LINE_TO; break;
+                case 'v': y += parseNumber(PATH_DATA, position);    cmds[noOfCmds++] = LINE_TO; break;
+                case 'Z':
+                case 'z':
+                    x = startX;
+                    y = startY;
+                    cmds[noOfCmds++] = CLOSE;
+                    command = ' ';
+                    break;
+                default: throw new IllegalArgumentException("Unsupported path command '" + command + "' in: " + PATH_DATA);
+            }
+            if (!isClose) {
+                pts[noOfPts++] = (float) x;
+                pts[noOfPts++] = (float) y;
+            }
+        }
+        return new CountryGeometry(Arrays.copyOf(cmds, noOfCmds), Arrays.copyOf(pts, noOfPts));
+    }
+
+    void write(final DataOutput OUTPUT) throws IOException {
+        OUTPUT.writeInt(commands.length);
+        OUTPUT.writeInt(coords.length);
+        OUTPUT.write(commands);
+        for (float coord : coords) { OUTPUT.writeFloat(coord); }
+    }
+
+    static CountryGeometry read(final DataInput INPUT) throws IOException {
+        byte[]  cmds = new byte[INPUT.readInt()];
+        float[] pts  = new float[INPUT.readInt()];
+        byte[]  raw  = new byte[pts.length * Float.BYTES];
+        INPUT.readFully(cmds);
+        INPUT.readFully(raw);
+        ByteBuffer.wrap(raw).asFloatBuffer().get(pts);
+        return new CountryGeometry(cmds, pts);
+    }
+
+    private int winding(final int FROM, final int TO, final double X, final double Y) {
+        double x0 = coords[FROM * 2];
+        double y0 = coords[FROM * 2 + 1];
+        double x1 = coords[TO * 2];
+        double y1 = coords[TO * 2 + 1];
+        if (y0 <= Y) {
+            if (y1 > Y && isLeft(x0, y0, x1, y1, X, Y) > 0) { return 1; }
+        } else if (y1 <= Y && isLeft(x0, y0, x1, y1, X, Y) < 0) {
+            return -1;
+        }
+        return 0;
+    }
+
+    private static double isLeft(final double X0, final double Y0, final double X1, final double Y1, final double X, final double Y) {
+        return (X1 - X0) * (Y - Y0) - (X - X0) * (Y1 - Y0);
+    }
+
+    private static void skipSeparators(final String DATA, final int[] POSITION) {
+        while (POSITION[0] < DATA.length()) {
+            char c = DATA.charAt(POSITION[0]);
+            if (c != ',' && !Character.isWhitespace(c)) { break; }
+            POSITION[0]++;
+        }
+    }
+
+    private static double parseNumber(final String DATA, final int[] POSITION) {
+        skipSeparators(DATA, POSITION);
+        int     start  = POSITION[0];
+        int     i      = start;
+        int     length = DATA.length();
+        boolean dot    = false;
+        if (i < length && (DATA.charAt(i) == '-' || DATA.charAt(i) == '+')) { i++; }
+        while (i < length) {
+            char c = DATA.charAt(i);
+            if (c >= '0' && c <= '9') {
+                i++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+                i++;
+            } else if (c == 'e' || c == 'E') {
+                i++;
+                if (i < length && (DATA.charAt(i) == '-' || DATA.charAt(i) == '+')) { i++; }
+                while (i < length && DATA.charAt(i) >= '0' && DATA.charAt(i) <= '9') { i++; }
+                break;
+            } else {
+                break;
+            }
+        }
+        if (i == start) { throw new IllegalArgumentException("Number expected at " + start + " in: " + DATA); }
+        POSITION[0] = i;
+        return Double.parseDouble(DATA.substring(start, i));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A uniform grid over the bounding boxes of all country outlines. Each cell
+ * keeps the indices of the outlines whose bounds overlap the cell, a lookup
+ * only has to test the outlines of one cell by using point in polygon.
+ */
+final class CountryIndex {
+    private static final double            CELL_SIZE = 16;
+    private        final Country[]         countries;
+    private        final CountryGeometry[] geometries;
+    private        final double            originX;
+    private        final double            originY;
+    private        final int               cols;
+    private        final int               rows;
+    private        final int[][]           cells;
+
+
+    // ******************** Constructors **************************************
+    CountryIndex() {
+        List<Country>         countryList  = new ArrayList<>();
+        List<CountryGeometry> geometryList = new ArrayList<>();
+        for (Country country : Country.values()) {
+            for (CountryGeometry geometry : country.getGeometries()) {
+                countryList.add(country);
+                geometryList.add(geometry);
+            }
+        }
+        countries  = countryList.toArray(new Country[0]);
+        geometries = geometryList.toArray(new CountryGeometry[0]);
+
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (CountryGeometry geometry : geometries) {
+            minX = Math.min(minX, geometry.getMinX());
+            minY = Math.min(minY, geometry.getMinY());
+            maxX = Math.max(maxX, geometry.getMaxX());
+            maxY = Math.max(maxY, geometry.getMaxY());
+        }
+        originX = minX;
+        originY = minY;
+        cols    = Math.max(1, (int) Math.ceil((maxX - minX) / CELL_SIZE) + 1);
+        rows    = Math.max(1, (int) Math.ceil((maxY - minY) / CELL_SIZE) + 1);
+
+        // Count the entries per cell first to be able to use exact sized arrays
+        int[] counts = new int[cols * rows];
+        for (CountryGeometry geometry : geometries) {
+            for (int row = getRow(geometry.getMinY()) ; row <= getRow(geometry.getMaxY()) ; row++) {
+                for (int col = getCol(geometry.getMinX()) ; col <= getCol(geometry.getMaxX()) ; col++) { counts[row * cols + col]++; }
+            }
+        }
+        cells = new int[cols * rows][];
+        for (int i = 0 ; i < counts.length ; i++) {
+            cells[i]  = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0 ; i < geometries.length ; i++) {
+            CountryGeometry geometry = geometries[i];
+            for (int row = getRow(geometry.getMinY()) ; row <= getRow(geometry.getMaxY()) ; row++) {
+                for (int col = getCol(geometry.getMinX()) ; col <= getCol(geometry.getMaxX()) ; col++) {
+                    int cell = row * cols + col;
+                    cells[cell][counts[cell]++] = i;
+                }
+            }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    int getNoOfGeometries() { return geometries.length; }
+
+    Country getCountry(final int INDEX) { return countries[INDEX]; }
+
+    CountryGeometry getGeometry(final int INDEX) { return geometries[INDEX]; }
+
+    /**
+     * Returns the country at the given position in map coordinates or null.
+     * If outlines overlap the one that is painted last wins.
+     */
+    Country getCountryAt(final double X, final double Y) {
+        if (X < originX || Y < originY) { return null; }
+        int col = (int) ((X - originX) / CELL_SIZE);
+        int row = (int) ((Y - originY) / CELL_SIZE);
+        if (col >= cols || row >= rows) { return null; }
+        int[] candidates = cells[row * cols + col];
+        for (int i = candidates.length - 1 ; i >= 0 ; i--) {
+            if (geometries[candidates[i]].contains(X, Y)) { return countries[candidates[i]]; }
+        }
+        return null;
+    }
+
+    private int getCol(final double X) { return Math.min(cols - 1, (int) ((X - originX) / CELL_SIZE)); }
+    private int getRow(final double Y) { return Math.min(rows - 1, (int) ((Y - originY) / CELL_SIZE)); }
+}
@@ -17,7 +17,9 @@
  */
 package eu.hansolo.fx.world;
 
+import javafx.event.EventHandler;
 import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.shape.SVGPath;
 
 import java.util.Locale;
@@ -28,23 +30,36 @@ import java.util.Locale;
  */
 public class CountryPath extends SVGPath {
     private final String  NAME;
-    private final Locale  LOCALE;
-    private final Tooltip TOOLTIP;
+    private       Locale  locale;
+    private       Tooltip tooltip;
 
     // ******************** Constructors **************************************
     public CountryPath(final String NAME) {
         super();
-        this.NAME    = NAME;
-        this.LOCALE  = new Locale("", NAME);
-        this.TOOLTIP = new Tooltip(LOCALE.getDisplayCountry());
-        Tooltip.install(this, TOOLTIP);
+        this.NAME = NAME;
+        // The tooltip will be created and installed when the path is hovered for the first time
+        addEventHandler(MouseEvent.MOUSE_ENTERED, new EventHandler<MouseEvent>() {
+            @Override public void handle(final MouseEvent EVT) {
+                removeEventHandler(MouseEvent.MOUSE_ENTERED, this);
+                getTooltip();
+            }
+        });
     }
 
 
     // ******************** Methods *******************************************
     public String getName() { return NAME; }
 
-    public Locale getLocale() { return LOCALE; }
+    public Locale getLocale() {
+        if (null == locale) { locale = new Locale("", NAME); }
+        return locale;
+    }
 
-    public Tooltip getTooltip() { return TOOLTIP; }
+    public Tooltip getTooltip() {
+        if (null == tooltip) {
+            tooltip = new Tooltip(getLocale().getDisplayCountry());
+            Tooltip.install(this, tooltip);
+        }
+        return tooltip;
+    }
 }
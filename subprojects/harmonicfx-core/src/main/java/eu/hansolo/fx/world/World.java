@@ -24,6 +24,9 @@ import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.CacheHint;
 import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -33,6 +36,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.SVGPath;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +49,7 @@ import java.util.Map;
  */
 @DefaultProperty("children")
 public class World extends Region {
+    public  enum RenderMode { NODES, CANVAS }
     private static final double                   EARTH_RADIUS     = 6_371_000;
     private static final double                   PREFERRED_WIDTH  = 1009;
     private static final double                   PREFERRED_HEIGHT = 665;
@@ -54,6 +59,7 @@ public class World extends Region {
     private static final double                   MAXIMUM_HEIGHT   = 1330;
     private static final Color                    FILL_COLOR       = Color.web("d9d9dc");
     private static final Color                    STROKE_COLOR     = Color.BLACK;
+    private static final double                   STROKE_WIDTH     = 0.5;
     private static final Color                    HOVER_COLOR      = Color.web("#456acf");
     private static final Color                    SELECTION_COLOR  = Color.web("#ef6050");
     private static final double                   ASPECT_RATIO     = PREFERRED_HEIGHT / PREFERRED_WIDTH;
@@ -62,6 +68,16 @@ public class World extends Region {
     private              Pane                     pane;
     private              Map<String, List<CountryPath>> countryPaths;
     private              ScalableContentPane      scalableContentPane;
+    private        final RenderMode               renderMode;
+    private              Canvas                   canvas;
+    private              GraphicsContext          ctx;
+    private              double                   scale;
+    private              CountryIndex             countryIndex;
+    private              Map<Country, Color>      countryFills;
+    private              Map<Country, CountryPath> countryProxies;
+    private              Country                  hoveredCountry;
+    private              Country                  pressedCountry;
+    private              Tooltip                  tooltip;
     // internal event handlers
     private              EventHandler<MouseEvent> _mouseEnterHandler;
     private              EventHandler<MouseEvent> _mousePressHandler;
@@ -76,6 +92,18 @@ public class World extends Region {
 
     // ******************** Constructors **************************************
     public World() {
+        this(RenderMode.NODES);
+    }
+
+    /**
+     * In RenderMode.CANVAS all countries are painted into one Canvas from the
+     * preprocessed outlines of Country.getGeometries() (no svg path data will be
+     * parsed) and the country under the mouse is looked up in a spatial index. The event handlers
+     * will receive events with a CountryPath as source that is not part of the
+     * scene graph and getCountryPaths() will return an empty map.
+     */
+    public World(final RenderMode RENDER_MODE) {
+        renderMode   = null == RENDER_MODE ? RenderMode.NODES : RENDER_MODE;
         countryPaths = new HashMap<>();
 
         _mouseEnterHandler = evt -> handleMouseEvent(evt, HOVER_COLOR, mouseEnterHandler);
@@ -106,6 +134,22 @@ public class World extends Region {
 
         getStyleClass().add("world");
 
+        if (RenderMode.CANVAS == renderMode) {
+            countryIndex   = new CountryIndex();
+            countryFills   = new EnumMap<>(Country.class);
+            countryProxies = new EnumMap<>(Country.class);
+            for (Country country : Country.values()) { countryFills.put(country, FILL_COLOR); }
+
+            canvas = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT);
+            ctx    = canvas.getGraphicsContext2D();
+            scale  = 1;
+
+            getChildren().setAll(canvas);
+
+            setBackground(new Background(new BackgroundFill(Color.web("#3f3f4f"), CornerRadii.EMPTY, Insets.EMPTY)));
+            return;
+        }
+
         pane = new Pane();
         for(Country country : Country.values()) {
             // Add children to pane
@@ -137,6 +181,23 @@ public class World extends Region {
     private void registerListeners() {
         widthProperty().addListener(o -> resize());
         heightProperty().addListener(o -> resize());
+        if (RenderMode.CANVAS == renderMode) {
+            canvas.addEventHandler(MouseEvent.MOUSE_MOVED, e -> setHoveredCountry(getCountryAt(e.getX(), e.getY()), e));
+            canvas.addEventHandler(MouseEvent.MOUSE_EXITED, e -> setHoveredCountry(null, e));
+            canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+                pressedCountry = getCountryAt(e.getX(), e.getY());
+                if (null == pressedCountry) { return; }
+                setCountryFill(pressedCountry, SELECTION_COLOR);
+                fireCountryEvent(e, pressedCountry, mousePressHandler);
+            });
+            canvas.addEventHandler(MouseEvent.MOUSE_RELEASED, e -> {
+                if (null == pressedCountry) { return; }
+                Country country = pressedCountry;
+                pressedCountry = null;
+                setCountryFill(country, HOVER_COLOR);
+                fireCountryEvent(e, country, mouseReleaseHandler);
+            });
+        }
     }
 
 
@@ -150,6 +211,8 @@ public class World extends Region {
 
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
+    public RenderMode getRenderMode() { return renderMode; }
+
     public Map<String, List<CountryPath>> getCountryPaths() { return countryPaths; }
 
     private void setFillAndStroke(final CountryPath PATH, final Color FILL, final Color STROKE) {
@@ -163,6 +226,122 @@ public class World extends Region {
     public void setMouseReleaseHandler(EventHandler<MouseEvent> mouseReleaseHandler) { this.mouseReleaseHandler = mouseReleaseHandler;  }
     public void setMouseExitHandler(EventHandler<MouseEvent> mouseExitHandler) {  this.mouseExitHandler = mouseExitHandler; }
 
+    // ******************** Canvas ********************************************
+    private Country getCountryAt(final double X, final double Y) { return scale > 0 ? countryIndex.getCountryAt(X / scale, Y / scale) : null; }
+
+    private void setHoveredCountry(final Country COUNTRY, final MouseEvent EVT) {
+        if (COUNTRY == hoveredCountry) { return; }
+        if (null != hoveredCountry) {
+            Country country = hoveredCountry;
+            hoveredCountry = null;
+            setCountryFill(country, FILL_COLOR);
+            fireCountryEvent(EVT, country, mouseExitHandler);
+        }
+        hoveredCountry = COUNTRY;
+        if (null == COUNTRY) {
+            if (null != tooltip) { Tooltip.uninstall(canvas, tooltip); }
+        } else {
+            setCountryFill(COUNTRY, HOVER_COLOR);
+            if (null == tooltip) { tooltip = new Tooltip(); }
+            tooltip.setText(getCountryProxy(COUNTRY).getLocale().getDisplayCountry());
+            Tooltip.install(canvas, tooltip);
+            fireCountryEvent(EVT, COUNTRY, mouseEnterHandler);
+        }
+    }
+
+    private CountryPath getCountryProxy(final Country COUNTRY) { return countryProxies.computeIfAbsent(COUNTRY, country -> new CountryPath(country.name())); }
+
+    private void fireCountryEvent(final MouseEvent EVT, final Country COUNTRY, final EventHandler<MouseEvent> HANDLER) {
+        if (null == HANDLER) { return; }
+        CountryPath proxy = getCountryProxy(COUNTRY);
+        HANDLER.handle(EVT.copyFor(proxy, proxy));
+    }
+
+    private void setCountryFill(final Country COUNTRY, final Color FILL) {
+        if (FILL.equals(countryFills.put(COUNTRY, FILL))) { return; }
+        drawCountry(COUNTRY);
+    }
+
+    private void drawCountries() {
+        ctx.setTransform(1, 0, 0, 1, 0, 0);
+        ctx.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        ctx.setTransform(scale, 0, 0, scale, 0, 0);
+        ctx.setLineWidth(STROKE_WIDTH);
+        ctx.setStroke(STROKE_COLOR);
+        for (int i = 0 ; i < countryIndex.getNoOfGeometries() ; i++) { drawGeometry(i); }
+    }
+
+    /**
+     * Repaints the area of the given country. The bounding box of the country
+     * (incl. the stroke) will be snapped outwards to whole pixels, cleared and
+     * all geometries that intersect it will be painted again clipped to it in
+     * the same order as in the full redraw.
+     */
+    private void drawCountry(final Country COUNTRY) {
+        if (scale <= 0) { return; }
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0 ; i < countryIndex.getNoOfGeometries() ; i++) {
+            if (COUNTRY != countryIndex.getCountry(i)) { continue; }
+            CountryGeometry geometry = countryIndex.getGeometry(i);
+            minX = Math.min(minX, geometry.getMinX());
+            minY = Math.min(minY, geometry.getMinY());
+            maxX = Math.max(maxX, geometry.getMaxX());
+            maxY = Math.max(maxY, geometry.getMaxY());
+        }
+        if (maxX < minX) { return; }
+
+        // Mitered corners of the stroke may exceed the outline by half the line width times the miter limit
+        double margin   = STROKE_WIDTH * 0.5 * Math.max(1, ctx.getMiterLimit());
+        double clipMinX = Math.max(0, Math.floor((minX - margin) * scale));
+        double clipMinY = Math.max(0, Math.floor((minY - margin) * scale));
+        double clipMaxX = Math.min(canvas.getWidth(), Math.ceil((maxX + margin) * scale));
+        double clipMaxY = Math.min(canvas.getHeight(), Math.ceil((maxY + margin) * scale));
+        if (clipMaxX <= clipMinX || clipMaxY <= clipMinY) { return; }
+
+        ctx.save();
+        ctx.setTransform(1, 0, 0, 1, 0, 0);
+        ctx.beginPath();
+        ctx.rect(clipMinX, clipMinY, clipMaxX - clipMinX, clipMaxY - clipMinY);
+        ctx.clip();
+        ctx.clearRect(clipMinX, clipMinY, clipMaxX - clipMinX, clipMaxY - clipMinY);
+        ctx.setTransform(scale, 0, 0, scale, 0, 0);
+        ctx.setLineWidth(STROKE_WIDTH);
+        ctx.setStroke(STROKE_COLOR);
+        // Bounds of the cleared area in unscaled coordinates, geometries are extended by their stroke
+        double areaMinX = clipMinX / scale - margin;
+        double areaMinY = clipMinY / scale - margin;
+        double areaMaxX = clipMaxX / scale + margin;
+        double areaMaxY = clipMaxY / scale + margin;
+        for (int i = 0 ; i < countryIndex.getNoOfGeometries() ; i++) {
+            CountryGeometry geometry = countryIndex.getGeometry(i);
+            if (geometry.getMinX() > areaMaxX || geometry.getMaxX() < areaMinX || geometry.getMinY() > areaMaxY || geometry.getMaxY() < areaMinY) { continue; }
+            drawGeometry(i);
+        }
+        ctx.restore();
+    }
+
+    private void drawGeometry(final int INDEX) {
+        CountryGeometry geometry = countryIndex.getGeometry(INDEX);
+        byte[]          commands = geometry.getCommands();
+        float[]         coords   = geometry.getCoords();
+        int             point    = 0;
+        ctx.beginPath();
+        for (byte command : commands) {
+            switch(command) {
+                case CountryGeometry.MOVE_TO: ctx.moveTo(coords[point], coords[point + 1]); point += 2; break;
+                case CountryGeometry.LINE_TO: ctx.lineTo(coords[point], coords[point + 1]); point += 2; break;
+                case CountryGeometry.CLOSE  : ctx.closePath(); break;
+            }
+        }
+        ctx.setFill(countryFills.get(countryIndex.getCountry(INDEX)));
+        ctx.fill();
+        ctx.stroke();
+    }
+
+
     // ******************** Resizing ******************************************
     private void resize() {
         width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
@@ -174,7 +353,13 @@ public class World extends Region {
             height = ASPECT_RATIO * width;
         }
 
-        if (width > 0 && height > 0) {
+        if (width > 0 && height > 0 && RenderMode.CANVAS == renderMode) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            canvas.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
+            scale = width / PREFERRED_WIDTH;
+            drawCountries();
+        } else if (width > 0 && height > 0) {
             pane.setCache(true);
             pane.setCacheHint(CacheHint.SCALE);
 
@@ -0,0 +1,127 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2013-2020 The original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.fx.world;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Provides the preprocessed outlines of all countries. The outlines are read
+ * from the binary resource countries.bin that is generated at build time by
+ * calling the main method of this class. The resource is loaded on the first
+ * access, if it is missing the svg path data of the Country enum is parsed.
+ *
+ * The outlines are only used by Country.getGeometries() and therefore by the
+ * World in RenderMode.CANVAS. The node based World still creates its CountryPath
+ * nodes from the svg path data because CountryPath is an SVGPath, it only gains
+ * the lazy creation of the tooltips. Reading the resource in a cold JVM takes
+ * about a fifth of the time that is needed to parse the svg path data, this is
+ * paid with about 600 KB (compressed) of additional data in the jar.
+ *
+ * Format: int magic, int version, int noOfCountries followed by the name,
+ * the number of paths and the geometry of each path of every country.
+ */
+final class WorldGeometry {
+    static  final String RESOURCE = "countries.bin";
+    private static final int    MAGIC    = 0x48465857;
+    private static final int    VERSION  = 1;
+
+
+    // ******************** Constructors **************************************
+    private WorldGeometry() {}
+
+
+    // ******************** Methods *******************************************
+    static List<CountryGeometry> get(final Country COUNTRY) { return Holder.GEOMETRIES.get(COUNTRY); }
+
+    private static Map<Country, List<CountryGeometry>> load() {
+        InputStream stream = WorldGeometry.class.getResourceAsStream(RESOURCE);
+        if (null != stream) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 65536))) {
+                return read(input);
+            } catch (IOException | IllegalArgumentException e) {
+                // fall through and use the svg path data
+            }
+        }
+        Map<Country, List<CountryGeometry>> geometries = new EnumMap<>(Country.class);
+        for (Country country : Country.values()) {
+            List<CountryGeometry> paths = new ArrayList<>();
+            for (String pathData : country.getPathData()) { paths.add(CountryGeometry.parse(pathData)); }
+            geometries.put(country, Collections.unmodifiableList(paths));
+        }
+        return geometries;
+    }
+
+    private static Map<Country, List<CountryGeometry>> read(final DataInputStream INPUT) throws IOException {
+        if (INPUT.readInt() != MAGIC || INPUT.readInt() != VERSION) { throw new IOException("Unknown format of " + RESOURCE); }
+        Map<Country, List<CountryGeometry>> geometries = new EnumMap<>(Country.class);
+        int noOfCountries = INPUT.readInt();
+        for (int i = 0 ; i < noOfCountries ; i++) {
+            Country               country   = Country.valueOf(INPUT.readUTF());
+            int                   noOfPaths = INPUT.readInt();
+            List<CountryGeometry> paths     = new ArrayList<>(noOfPaths);
+            for (int j = 0 ; j < noOfPaths ; j++) { paths.add(CountryGeometry.read(INPUT)); }
+            geometries.put(country, Collections.unmodifiableList(paths));
+        }
+        if (geometries.size() != Country.values().length) { throw new IOException(RESOURCE + " does not contain all countries"); }
+        return geometries;
+    }
+
+    static void write(final DataOutputStream OUTPUT) throws IOException {
+        OUTPUT.writeInt(MAGIC);
+        OUTPUT.writeInt(VERSION);
+        OUTPUT.writeInt(Country.values().length);
+        for (Country country : Country.values()) {
+            List<String> pathData = country.getPathData();
+            OUTPUT.writeUTF(country.name());
+            OUTPUT.writeInt(pathData.size());
+            for (String data : pathData) { CountryGeometry.parse(data).write(OUTPUT); }
+        }
+    }
+
+    /**
+     * Writes the binary resource to eu/hansolo/fx/world/countries.bin in the
+     * given output directory (used by the generateWorldGeometry build task).
+     */
+    public static void main(final String[] ARGS) throws IOException {
+        if (ARGS.length != 1) { throw new IllegalArgumentException("Usage: WorldGeometry <output directory>"); }
+        File file = new File(ARGS[0], "eu/hansolo/fx/world/" + RESOURCE);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) { throw new IOException("Cannot create " + file.getParent()); }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(output);
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Holder {
+        static final Map<Country, List<CountryGeometry>> GEOMETRIES = load();
+    }
+}